@@ -38,6 +38,13 @@ public class BasicMetrics implements Metrics {
         counters.put(operation, counters.getOrDefault(operation, 0L) + 1);
     }
 
+    @Override
+    public void addCounter(String operation, long amount) {
+        if (amount != 0) {
+            counters.merge(operation, amount, Long::sum);
+        }
+    }
+
     @Override
     public long getCounter(String operation) {
         return counters.getOrDefault(operation, 0L);
@@ -0,0 +1,292 @@
+package graph.common;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+final class BinaryGraphFormat {
+    static final int MAGIC = 0x47414444;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private BinaryGraphFormat() {
+    }
+
+    static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    static long offsetsPosition() {
+        return HEADER_BYTES;
+    }
+
+    static long targetsPosition(int vertices) {
+        return align(offsetsPosition() + 4L * (vertices + 1));
+    }
+
+    static long weightsPosition(int vertices, int edges) {
+        return align(targetsPosition(vertices) + 4L * edges);
+    }
+
+    static long nameOffsetsPosition(int vertices, int edges) {
+        return align(weightsPosition(vertices, edges) + 8L * edges);
+    }
+
+    static long namesPosition(int vertices, int edges) {
+        return align(nameOffsetsPosition(vertices, edges) + 4L * (vertices + 1));
+    }
+
+    static void write(GraphView graph, OutputStream out) throws IOException {
+        int n = graph.getVertices();
+        int m = graph.countEdges();
+
+        int[] nameOffsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            nameOffsets[i + 1] = nameOffsets[i] + utf8Length(graph.getTaskName(i));
+        }
+
+        SectionWriter writer = new SectionWriter(out);
+        writer.putInt(MAGIC);
+        writer.putInt(VERSION);
+        writer.putInt(n);
+        writer.putInt(m);
+        writer.putLong(nameOffsets[n]);
+        writer.putLong(0L);
+
+        int offset = 0;
+        writer.putInt(0);
+        for (int u = 0; u < n; u++) {
+            offset += graph.outDegree(u);
+            writer.putInt(offset);
+        }
+        if (offset != m) {
+            throw new IllegalStateException("Edge count changed while writing graph");
+        }
+        writer.padTo(targetsPosition(n));
+
+        for (int u = 0; u < n; u++) {
+            int degree = graph.outDegree(u);
+            for (int i = 0; i < degree; i++) {
+                writer.putInt(graph.edgeTarget(u, i));
+            }
+        }
+        writer.padTo(weightsPosition(n, m));
+
+        for (int u = 0; u < n; u++) {
+            int degree = graph.outDegree(u);
+            for (int i = 0; i < degree; i++) {
+                writer.putDouble(graph.edgeWeight(u, i));
+            }
+        }
+        writer.padTo(nameOffsetsPosition(n, m));
+
+        for (int nameOffset : nameOffsets) {
+            writer.putInt(nameOffset);
+        }
+        writer.padTo(namesPosition(n, m));
+
+        for (int i = 0; i < n; i++) {
+            writer.putBytes(graph.getTaskName(i).getBytes(StandardCharsets.UTF_8));
+        }
+        writer.flush();
+    }
+
+    static CSRGraph read(InputStream in) throws IOException {
+        SectionReader reader = new SectionReader(in);
+        if (reader.getInt() != MAGIC) {
+            throw new IOException("Not a binary graph file");
+        }
+        int version = reader.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary graph version: " + version);
+        }
+        int n = reader.getInt();
+        int m = reader.getInt();
+        long namesBytes = reader.getLong();
+        reader.getLong();
+        if (n < 0 || m < 0 || namesBytes < 0 || namesBytes > Integer.MAX_VALUE) {
+            throw new IOException("Corrupt binary graph header");
+        }
+
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i <= n; i++) {
+            offsets[i] = reader.getInt();
+        }
+        reader.skipTo(targetsPosition(n));
+
+        int[] targets = new int[m];
+        for (int e = 0; e < m; e++) {
+            targets[e] = reader.getInt();
+        }
+        reader.skipTo(weightsPosition(n, m));
+
+        double[] weights = new double[m];
+        for (int e = 0; e < m; e++) {
+            weights[e] = reader.getDouble();
+        }
+        reader.skipTo(nameOffsetsPosition(n, m));
+
+        int[] nameOffsets = new int[n + 1];
+        for (int i = 0; i <= n; i++) {
+            nameOffsets[i] = reader.getInt();
+        }
+        reader.skipTo(namesPosition(n, m));
+
+        byte[] names = reader.getBytes((int) namesBytes);
+        String[] taskNames = new String[n];
+        for (int i = 0; i < n; i++) {
+            taskNames[i] = new String(names, nameOffsets[i], nameOffsets[i + 1] - nameOffsets[i],
+                    StandardCharsets.UTF_8);
+        }
+        return new CSRGraph(offsets, targets, weights, taskNames);
+    }
+
+    private static int utf8Length(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static class SectionWriter {
+        private final OutputStream out;
+        private final ByteBuffer buffer;
+        private long position;
+
+        SectionWriter(OutputStream out) {
+            this.out = out;
+            this.buffer = ByteBuffer.allocate(1 << 16).order(ORDER);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+            position += 4;
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+            position += 8;
+        }
+
+        void putDouble(double value) throws IOException {
+            ensure(8);
+            buffer.putDouble(value);
+            position += 8;
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            for (int i = 0; i < bytes.length; ) {
+                ensure(1);
+                int count = Math.min(buffer.remaining(), bytes.length - i);
+                buffer.put(bytes, i, count);
+                i += count;
+                position += count;
+            }
+        }
+
+        void padTo(long target) throws IOException {
+            while (position < target) {
+                ensure(1);
+                buffer.put((byte) 0);
+                position++;
+            }
+        }
+
+        void flush() throws IOException {
+            out.write(buffer.array(), 0, buffer.position());
+            buffer.clear();
+            out.flush();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                out.write(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+        }
+    }
+
+    private static class SectionReader {
+        private final InputStream in;
+        private final ByteBuffer buffer;
+        private long position;
+
+        SectionReader(InputStream in) {
+            this.in = in;
+            this.buffer = ByteBuffer.allocate(1 << 16).order(ORDER);
+            this.buffer.flip();
+        }
+
+        int getInt() throws IOException {
+            require(4);
+            position += 4;
+            return buffer.getInt();
+        }
+
+        long getLong() throws IOException {
+            require(8);
+            position += 8;
+            return buffer.getLong();
+        }
+
+        double getDouble() throws IOException {
+            require(8);
+            position += 8;
+            return buffer.getDouble();
+        }
+
+        byte[] getBytes(int count) throws IOException {
+            byte[] bytes = new byte[count];
+            for (int i = 0; i < count; ) {
+                require(1);
+                int chunk = Math.min(buffer.remaining(), count - i);
+                buffer.get(bytes, i, chunk);
+                i += chunk;
+                position += chunk;
+            }
+            return bytes;
+        }
+
+        void skipTo(long target) throws IOException {
+            while (position < target) {
+                require(1);
+                buffer.get();
+                position++;
+            }
+        }
+
+        private void require(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                int read = in.read(buffer.array(), buffer.position(), buffer.remaining());
+                if (read < 0) {
+                    throw new EOFException("Truncated binary graph file");
+                }
+                buffer.position(buffer.position() + read);
+            }
+            buffer.flip();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package graph.common;
+
+import java.util.Arrays;
+
+public class CSRGraph implements GraphView {
+    private final int vertices;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final String[] taskNames;
+    private DegreeIndex degreeIndex;
+    private CSRGraph reversed;
+
+    public CSRGraph(Graph graph) {
+        this.vertices = graph.getVertices();
+        this.offsets = new int[vertices + 1];
+
+        for (int u = 0; u < vertices; u++) {
+            offsets[u + 1] = offsets[u] + graph.outDegree(u);
+        }
+
+        this.targets = new int[offsets[vertices]];
+        this.weights = new double[offsets[vertices]];
+        this.taskNames = new String[vertices];
+
+        for (int u = 0; u < vertices; u++) {
+            int e = offsets[u];
+            for (Graph.Edge edge : graph.getAdjacent(u)) {
+                targets[e] = edge.to;
+                weights[e] = edge.weight;
+                e++;
+            }
+            taskNames[u] = graph.lookupTaskName(u);
+        }
+    }
+
+    public CSRGraph(int[] offsets, int[] targets, double[] weights, String[] taskNames) {
+        if (offsets.length == 0 || targets.length != weights.length
+                || offsets[offsets.length - 1] != targets.length) {
+            throw new IllegalArgumentException("Inconsistent CSR arrays");
+        }
+        this.vertices = offsets.length - 1;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.taskNames = taskNames != null ? taskNames : new String[vertices];
+    }
+
+    @Override
+    public int getVertices() {
+        return vertices;
+    }
+
+    @Override
+    public int countEdges() {
+        return targets.length;
+    }
+
+    @Override
+    public int outDegree(int u) {
+        return offsets[u + 1] - offsets[u];
+    }
+
+    @Override
+    public int edgeTarget(int u, int i) {
+        return targets[offsets[u] + i];
+    }
+
+    @Override
+    public double edgeWeight(int u, int i) {
+        return weights[offsets[u] + i];
+    }
+
+    public int edgeStart(int u) {
+        return offsets[u];
+    }
+
+    public int edgeEnd(int u) {
+        return offsets[u + 1];
+    }
+
+    public int getTarget(int e) {
+        return targets[e];
+    }
+
+    public double getWeight(int e) {
+        return weights[e];
+    }
+
+    @Override
+    public long getModificationCount() {
+        return 0L;
+    }
+
+    @Override
+    public DegreeIndex getDegreeIndex() {
+        DegreeIndex index = degreeIndex;
+        if (index == null) {
+            index = new DegreeIndex(this);
+            degreeIndex = index;
+        }
+        return index;
+    }
+
+    @Override
+    public CSRGraph reversed() {
+        CSRGraph view = reversed;
+        if (view == null) {
+            view = reverseOf(this, taskNames);
+            view.reversed = this;
+            reversed = view;
+        }
+        return view;
+    }
+
+    static CSRGraph reverseOf(GraphView graph, String[] taskNames) {
+        int n = graph.getVertices();
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            int degree = graph.outDegree(u);
+            for (int i = 0; i < degree; i++) {
+                offsets[graph.edgeTarget(u, i) + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        int[] targets = new int[offsets[n]];
+        double[] weights = new double[offsets[n]];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int u = 0; u < n; u++) {
+            int degree = graph.outDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int e = fill[graph.edgeTarget(u, i)]++;
+                targets[e] = u;
+                weights[e] = graph.edgeWeight(u, i);
+            }
+        }
+        return new CSRGraph(offsets, targets, weights, taskNames);
+    }
+
+    @Override
+    public String getTaskName(int id) {
+        String name = taskNames[id];
+        return name != null ? name : "Task_" + id;
+    }
+
+    public Graph toGraph() {
+        Graph graph = new Graph(vertices);
+        for (int u = 0; u < vertices; u++) {
+            if (taskNames[u] != null) {
+                graph.setTaskName(u, taskNames[u]);
+            }
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                graph.addEdge(u, targets[e], weights[e]);
+            }
+        }
+        return graph;
+    }
+
+    @Override
+    public String toString() {
+        return "CSRGraph with " + vertices + " vertices and " + targets.length + " edges";
+    }
+}
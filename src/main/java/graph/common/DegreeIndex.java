@@ -0,0 +1,90 @@
+package graph.common;
+
+import java.util.Arrays;
+
+public class DegreeIndex {
+    private final int[] inDegree;
+    private final int[] outDegree;
+    private final int[] sources;
+    private final int[] sinks;
+    private final int edgeCount;
+
+    public DegreeIndex(GraphView graph) {
+        int n = graph.getVertices();
+        this.inDegree = new int[n];
+        this.outDegree = new int[n];
+
+        int edges = 0;
+        for (int u = 0; u < n; u++) {
+            int degree = graph.outDegree(u);
+            outDegree[u] = degree;
+            edges += degree;
+            for (int i = 0; i < degree; i++) {
+                inDegree[graph.edgeTarget(u, i)]++;
+            }
+        }
+        this.edgeCount = edges;
+
+        int sourceCount = 0;
+        int sinkCount = 0;
+        for (int v = 0; v < n; v++) {
+            if (inDegree[v] == 0) sourceCount++;
+            if (outDegree[v] == 0) sinkCount++;
+        }
+
+        this.sources = new int[sourceCount];
+        this.sinks = new int[sinkCount];
+        sourceCount = 0;
+        sinkCount = 0;
+        for (int v = 0; v < n; v++) {
+            if (inDegree[v] == 0) sources[sourceCount++] = v;
+            if (outDegree[v] == 0) sinks[sinkCount++] = v;
+        }
+    }
+
+    public int getInDegree(int v) {
+        return inDegree[v];
+    }
+
+    public int getOutDegree(int v) {
+        return outDegree[v];
+    }
+
+    public int[] copyInDegrees() {
+        return inDegree.clone();
+    }
+
+    public int[] copyOutDegrees() {
+        return outDegree.clone();
+    }
+
+    public int[] getSources() {
+        return sources.clone();
+    }
+
+    public int[] getSinks() {
+        return sinks.clone();
+    }
+
+    public int getSourceCount() {
+        return sources.length;
+    }
+
+    public int getSinkCount() {
+        return sinks.length;
+    }
+
+    public int firstSource() {
+        return sources.length > 0 ? sources[0] : -1;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public String toString() {
+        return "DegreeIndex{edges=" + edgeCount + ", sources=" + Arrays.toString(sources)
+                + ", sinks=" + Arrays.toString(sinks) + "}";
+    }
+}
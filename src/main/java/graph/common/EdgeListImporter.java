@@ -0,0 +1,215 @@
+package graph.common;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+final class EdgeListImporter {
+    private static final long WINDOW_BYTES = 1L << 30;
+
+    private int[] table = new int[1 << 10];
+    private int[] nameStart = new int[256];
+    private int[] nameLength = new int[256];
+    private int[] nameHash = new int[256];
+    private byte[] namePool = new byte[1 << 12];
+    private int namePoolSize;
+    private int names;
+
+    private int[] from = new int[1 << 10];
+    private int[] to = new int[1 << 10];
+    private double[] weight = new double[1 << 10];
+    private int edges;
+    private int lineNumber = 1;
+
+    private EdgeListImporter() {
+        Arrays.fill(table, -1);
+    }
+
+    static CSRGraph load(Path path) throws IOException {
+        EdgeListImporter importer = new EdgeListImporter();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long length = Math.min(WINDOW_BYTES, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean last = position + length == size;
+                int consumed = importer.scan(window, (int) length, last);
+                if (consumed == 0) {
+                    throw new IOException("Line longer than " + WINDOW_BYTES + " bytes at line " + importer.lineNumber);
+                }
+                position += consumed;
+            }
+        }
+        return importer.build();
+    }
+
+    private int scan(MappedByteBuffer bytes, int limit, boolean last) throws IOException {
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && bytes.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            if (lineEnd == limit && !last) {
+                return lineStart;
+            }
+
+            int end = lineEnd;
+            if (end > lineStart && bytes.get(end - 1) == '\r') {
+                end--;
+            }
+            parseLine(bytes, lineStart, end);
+
+            lineStart = lineEnd + 1;
+            lineNumber++;
+        }
+        return limit;
+    }
+
+    private void parseLine(MappedByteBuffer bytes, int start, int end) throws IOException {
+        if (start == end || bytes.get(start) == '#') {
+            return;
+        }
+
+        int firstTab = indexOfTab(bytes, start, end);
+        if (firstTab < 0) {
+            throw new IOException("Expected from<TAB>to[<TAB>weight] at line " + lineNumber);
+        }
+        int secondTab = indexOfTab(bytes, firstTab + 1, end);
+        int toEnd = secondTab < 0 ? end : secondTab;
+
+        int u = intern(bytes, start, firstTab);
+        int v = intern(bytes, firstTab + 1, toEnd);
+        double w = 1.0;
+        if (secondTab >= 0 && secondTab + 1 < end) {
+            try {
+                w = JsonByteCursor.parseDouble(bytes, secondTab + 1, end);
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid weight at line " + lineNumber);
+            }
+        }
+        addEdge(u, v, w);
+    }
+
+    private static int indexOfTab(MappedByteBuffer bytes, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (bytes.get(i) == '\t') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int intern(MappedByteBuffer bytes, int start, int end) {
+        int hash = 0x811C9DC5;
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ bytes.get(i)) * 0x01000193;
+        }
+
+        int mask = table.length - 1;
+        int slot = mix(hash) & mask;
+        while (table[slot] >= 0) {
+            int id = table[slot];
+            if (nameHash[id] == hash && sameName(id, bytes, start, end)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int id = names++;
+        if (id == nameStart.length) {
+            nameStart = Arrays.copyOf(nameStart, id * 2);
+            nameLength = Arrays.copyOf(nameLength, id * 2);
+            nameHash = Arrays.copyOf(nameHash, id * 2);
+        }
+        int length = end - start;
+        while (namePoolSize + length > namePool.length) {
+            namePool = Arrays.copyOf(namePool, namePool.length * 2);
+        }
+        for (int i = 0; i < length; i++) {
+            namePool[namePoolSize + i] = bytes.get(start + i);
+        }
+        nameStart[id] = namePoolSize;
+        nameLength[id] = length;
+        nameHash[id] = hash;
+        namePoolSize += length;
+
+        table[slot] = id;
+        if (names * 2 > table.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private boolean sameName(int id, MappedByteBuffer bytes, int start, int end) {
+        if (nameLength[id] != end - start) {
+            return false;
+        }
+        int offset = nameStart[id];
+        for (int i = start; i < end; i++) {
+            if (namePool[offset++] != bytes.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash() {
+        table = new int[table.length * 2];
+        Arrays.fill(table, -1);
+        int mask = table.length - 1;
+        for (int id = 0; id < names; id++) {
+            int slot = mix(nameHash[id]) & mask;
+            while (table[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id;
+        }
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private void addEdge(int u, int v, double w) {
+        if (edges == from.length) {
+            from = Arrays.copyOf(from, edges * 2);
+            to = Arrays.copyOf(to, edges * 2);
+            weight = Arrays.copyOf(weight, edges * 2);
+        }
+        from[edges] = u;
+        to[edges] = v;
+        weight[edges] = w;
+        edges++;
+    }
+
+    private CSRGraph build() {
+        int[] offsets = new int[names + 1];
+        for (int e = 0; e < edges; e++) {
+            offsets[from[e] + 1]++;
+        }
+        for (int u = 0; u < names; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+
+        int[] cursor = Arrays.copyOf(offsets, names);
+        int[] targets = new int[edges];
+        double[] weights = new double[edges];
+        for (int e = 0; e < edges; e++) {
+            int slot = cursor[from[e]]++;
+            targets[slot] = to[e];
+            weights[slot] = weight[e];
+        }
+
+        String[] taskNames = new String[names];
+        for (int id = 0; id < names; id++) {
+            taskNames[id] = new String(namePool, nameStart[id], nameLength[id], StandardCharsets.UTF_8);
+        }
+        return new CSRGraph(offsets, targets, weights, taskNames);
+    }
+}
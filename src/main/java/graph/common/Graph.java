@@ -1,11 +1,16 @@
 package graph.common;
 import java.util.*;
 
-public class Graph {
+public class Graph implements GraphView {
     private final int vertices;
     private final List<List<Edge>> adjacencyList;
-    private final Map<String, Integer> taskNameToId;
-    private final Map<Integer, String> idToTaskName;
+    private final String[] taskNames;
+    private final TaskNameIndex taskNameIndex;
+    private String[] defaultTaskNames;
+    private int edgeCount;
+    private long modificationCount;
+    private DegreeIndex degreeIndex;
+    private CSRGraph reversed;
 
     public static class Edge {
         public final int to;
@@ -24,8 +29,8 @@ public class Graph {
     public Graph(int vertices) {
         this.vertices = vertices;
         this.adjacencyList = new ArrayList<>(vertices);
-        this.taskNameToId = new HashMap<>();
-        this.idToTaskName = new HashMap<>();
+        this.taskNames = new String[vertices];
+        this.taskNameIndex = new TaskNameIndex();
 
         for (int i = 0; i < vertices; i++) {
             adjacencyList.add(new ArrayList<>());
@@ -37,6 +42,10 @@ public class Graph {
             throw new IllegalArgumentException("Invalid vertex index");
         }
         adjacencyList.get(u).add(new Edge(v, weight));
+        edgeCount++;
+        modificationCount++;
+        degreeIndex = null;
+        reversed = null;
     }
 
     public void addEdge(int u, int v) {
@@ -44,18 +53,46 @@ public class Graph {
     }
 
     public void setTaskName(int id, String name) {
-        taskNameToId.put(name, id);
-        idToTaskName.put(id, name);
+        if (id < 0 || id >= vertices) {
+            throw new IllegalArgumentException("Invalid vertex index");
+        }
+        taskNameIndex.put(name, id);
+        taskNames[id] = name;
+        reversed = null;
     }
 
+    @Override
     public String getTaskName(int id) {
-        return idToTaskName.getOrDefault(id, "Task_" + id);
+        String name = taskNames[id];
+        return name != null ? name : defaultTaskName(id);
+    }
+
+    private String defaultTaskName(int id) {
+        if (defaultTaskNames == null) {
+            defaultTaskNames = new String[vertices];
+        }
+        String name = defaultTaskNames[id];
+        if (name == null) {
+            name = "Task_" + id;
+            defaultTaskNames[id] = name;
+        }
+        return name;
+    }
+
+    String lookupTaskName(int id) {
+        return taskNames[id];
     }
 
     public Integer getTaskId(String name) {
-        return taskNameToId.get(name);
+        int id = taskNameIndex.get(name);
+        return id >= 0 ? id : null;
     }
 
+    public int findTaskId(String name) {
+        return taskNameIndex.get(name);
+    }
+
+    @Override
     public int getVertices() {
         return vertices;
     }
@@ -64,11 +101,28 @@ public class Graph {
         return adjacencyList.get(u);
     }
 
+    @Override
+    public int outDegree(int u) {
+        return adjacencyList.get(u).size();
+    }
+
+    @Override
+    public int edgeTarget(int u, int i) {
+        return adjacencyList.get(u).get(i).to;
+    }
+
+    @Override
+    public double edgeWeight(int u, int i) {
+        return adjacencyList.get(u).get(i).weight;
+    }
+
     public Graph reverse() {
         Graph reversed = new Graph(vertices);
 
-        for (Map.Entry<Integer, String> entry : idToTaskName.entrySet()) {
-            reversed.setTaskName(entry.getKey(), entry.getValue());
+        for (int i = 0; i < vertices; i++) {
+            if (taskNames[i] != null) {
+                reversed.setTaskName(i, taskNames[i]);
+            }
         }
 
         for (int u = 0; u < vertices; u++) {
@@ -80,12 +134,34 @@ public class Graph {
         return reversed;
     }
 
+    @Override
     public int countEdges() {
-        int count = 0;
-        for (List<Edge> edges : adjacencyList) {
-            count += edges.size();
+        return edgeCount;
+    }
+
+    @Override
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    @Override
+    public DegreeIndex getDegreeIndex() {
+        DegreeIndex index = degreeIndex;
+        if (index == null) {
+            index = new DegreeIndex(this);
+            degreeIndex = index;
+        }
+        return index;
+    }
+
+    @Override
+    public CSRGraph reversed() {
+        CSRGraph view = reversed;
+        if (view == null) {
+            view = CSRGraph.reverseOf(this, taskNames.clone());
+            reversed = view;
         }
-        return count;
+        return view;
     }
 
     @Override
@@ -2,13 +2,69 @@ package graph.common;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 public class GraphLoader {
+    public static final String BINARY_EXTENSION = ".gbin";
+    public static final String GZIP_EXTENSION = ".gz";
+    public static final String EDGE_LIST_EXTENSION = ".tsv";
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    public static GraphView load(String filename) throws Exception {
+        if (isBinary(filename)) {
+            return loadBinary(filename);
+        }
+        if (filename.endsWith(EDGE_LIST_EXTENSION)) {
+            return loadFromEdgeList(filename);
+        }
+        return loadFromJSONStreaming(filename);
+    }
+
+    public static boolean isBinary(String filename) {
+        return filename.endsWith(BINARY_EXTENSION) || filename.endsWith(BINARY_EXTENSION + GZIP_EXTENSION);
+    }
+
+    public static boolean isCompressed(String filename) {
+        return filename.endsWith(GZIP_EXTENSION);
+    }
+
+    private static InputStream openInput(String filename) throws IOException {
+        InputStream in = Files.newInputStream(Paths.get(filename));
+        if (isCompressed(filename)) {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+        return new BufferedInputStream(in, BUFFER_SIZE);
+    }
+
+    private static OutputStream openOutput(String filename) throws IOException {
+        OutputStream out = Files.newOutputStream(Paths.get(filename));
+        if (isCompressed(filename)) {
+            return new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+        return new BufferedOutputStream(out, BUFFER_SIZE);
+    }
 
     public static Graph loadFromJSON(String filename) throws Exception {
-        String content = new String(Files.readAllBytes(Paths.get(filename)));
+        String content;
+        try (InputStream in = openInput(filename)) {
+            content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
         JSONObject json = new JSONObject(content);
 
         int vertices = json.getInt("vertices");
@@ -26,10 +82,10 @@ public class GraphLoader {
             String to = edge.getString("to");
             double weight = edge.optDouble("weight", 1.0);
 
-            Integer fromId = graph.getTaskId(from);
-            Integer toId = graph.getTaskId(to);
+            int fromId = graph.findTaskId(from);
+            int toId = graph.findTaskId(to);
 
-            if (fromId != null && toId != null) {
+            if (fromId >= 0 && toId >= 0) {
                 graph.addEdge(fromId, toId, weight);
             }
         }
@@ -37,28 +93,68 @@ public class GraphLoader {
         return graph;
     }
 
-    public static void saveToJSON(Graph graph, String filename) throws Exception {
-        JSONObject json = new JSONObject();
-        json.put("vertices", graph.getVertices());
+    public static Graph loadFromJSONStreaming(String filename) throws Exception {
+        try (Reader reader = new InputStreamReader(openInput(filename), StandardCharsets.UTF_8)) {
+            return new JsonGraphReader(reader).read();
+        }
+    }
 
-        JSONArray tasks = new JSONArray();
-        for (int i = 0; i < graph.getVertices(); i++) {
-            tasks.put(graph.getTaskName(i));
+    public static Graph loadFromJSONParallel(String filename) throws Exception {
+        return loadFromJSONParallel(filename, ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    public static Graph loadFromJSONParallel(String filename, int parallelism) throws Exception {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive");
         }
-        json.put("tasks", tasks);
-
-        JSONArray edges = new JSONArray();
-        for (int u = 0; u < graph.getVertices(); u++) {
-            for (Graph.Edge edge : graph.getAdjacent(u)) {
-                JSONObject edgeObj = new JSONObject();
-                edgeObj.put("from", graph.getTaskName(u));
-                edgeObj.put("to", graph.getTaskName(edge.to));
-                edgeObj.put("weight", edge.weight);
-                edges.put(edgeObj);
-            }
+        if (isCompressed(filename) || Files.size(Paths.get(filename)) > Integer.MAX_VALUE) {
+            return loadFromJSONStreaming(filename);
         }
-        json.put("edges", edges);
+        return ParallelJsonGraphLoader.load(Paths.get(filename), parallelism);
+    }
+
+    public static CSRGraph loadFromEdgeList(String filename) throws Exception {
+        return EdgeListImporter.load(Paths.get(filename));
+    }
+
+    public static void saveToJSON(GraphView graph, String filename) throws Exception {
+        saveToJSON(graph, filename, true);
+    }
+
+    public static void saveToJSON(GraphView graph, String filename, boolean pretty) throws Exception {
+        try (OutputStream out = openOutput(filename)) {
+            writeJSON(graph, out, pretty);
+        }
+    }
+
+    public static void writeJSON(GraphView graph, OutputStream out, boolean pretty) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        writeJSON(graph, writer, pretty);
+    }
 
-        Files.write(Paths.get(filename), json.toString(2).getBytes());
+    public static void writeJSON(GraphView graph, Writer writer, boolean pretty) throws IOException {
+        new JsonGraphWriter(writer, pretty).write(graph);
+    }
+
+    public static void saveToBinary(GraphView graph, String filename) throws Exception {
+        try (OutputStream out = openOutput(filename)) {
+            BinaryGraphFormat.write(graph, out);
+        }
+    }
+
+    public static MappedGraph openBinary(String filename) throws Exception {
+        if (isCompressed(filename)) {
+            throw new IllegalArgumentException("Compressed graph files cannot be memory-mapped: " + filename);
+        }
+        return MappedGraph.open(Paths.get(filename));
+    }
+
+    public static GraphView loadBinary(String filename) throws Exception {
+        if (!isCompressed(filename)) {
+            return openBinary(filename);
+        }
+        try (InputStream in = openInput(filename)) {
+            return BinaryGraphFormat.read(in);
+        }
     }
 }
@@ -0,0 +1,153 @@
+package graph.common;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+public class GraphSnapshotCache {
+    public static final String SNAPSHOT_EXTENSION = ".snapshot";
+    private static final int SNAPSHOT_MAGIC = 0x504E5347;
+    private static final int SNAPSHOT_VERSION = 2;
+
+    public static GraphView load(String filename) throws Exception {
+        if (GraphLoader.isBinary(filename)) {
+            return GraphLoader.load(filename);
+        }
+
+        Path source = Paths.get(filename).toAbsolutePath().normalize();
+        Path snapshot = snapshotPath(filename);
+        byte[] key = fingerprint(source);
+
+        long base = matchingSnapshotBase(snapshot, key);
+        if (base >= 0) {
+            try {
+                return MappedGraph.open(snapshot, base);
+            } catch (IOException e) {
+                Files.deleteIfExists(snapshot);
+            }
+        } else {
+            Files.deleteIfExists(snapshot);
+        }
+
+        GraphView graph = GraphLoader.load(filename);
+        try {
+            writeSnapshot(snapshot, key, graph);
+        } catch (IOException e) {
+            System.err.println("Could not write graph snapshot " + snapshot + ": " + e.getMessage());
+        }
+        return graph;
+    }
+
+    public static Path snapshotPath(String filename) {
+        return Paths.get(filename + SNAPSHOT_EXTENSION);
+    }
+
+    public static void invalidate(String filename) throws IOException {
+        Files.deleteIfExists(snapshotPath(filename));
+    }
+
+    private static byte[] fingerprint(Path source) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(source.toString());
+            out.writeLong(Files.size(source));
+            out.writeLong(Files.getLastModifiedTime(source).toMillis());
+            out.writeLong(contentHash(source));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static long contentHash(Path source) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            return checksum(channel, 0);
+        }
+    }
+
+    private static long checksum(FileChannel channel, long position) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+        int read;
+        while ((read = channel.read(buffer, position)) >= 0) {
+            position += read;
+            buffer.flip();
+            crc.update(buffer);
+            buffer.clear();
+        }
+        return crc.getValue();
+    }
+
+    private static long matchingSnapshotBase(Path snapshot, byte[] key) throws IOException {
+        if (!Files.isRegularFile(snapshot)) {
+            return -1;
+        }
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(12).order(BinaryGraphFormat.ORDER);
+            if (channel.read(header, 0) != 12) {
+                return -1;
+            }
+            header.flip();
+            if (header.getInt() != SNAPSHOT_MAGIC || header.getInt() != SNAPSHOT_VERSION
+                    || header.getInt() != key.length) {
+                return -1;
+            }
+
+            ByteBuffer stored = ByteBuffer.allocate(key.length);
+            if (channel.read(stored, 12) != key.length || !Arrays.equals(stored.array(), key)) {
+                return -1;
+            }
+
+            ByteBuffer expected = ByteBuffer.allocate(8).order(BinaryGraphFormat.ORDER);
+            if (channel.read(expected, 12L + key.length) != 8) {
+                return -1;
+            }
+            long base = BinaryGraphFormat.align(20L + key.length);
+            if (expected.getLong(0) != checksum(channel, base)) {
+                return -1;
+            }
+            return base;
+        }
+    }
+
+    private static void writeSnapshot(Path snapshot, byte[] key, GraphView graph) throws IOException {
+        Path directory = snapshot.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, snapshot.getFileName().toString(), ".tmp");
+        try {
+            long base = BinaryGraphFormat.align(20L + key.length);
+            CRC32C crc = new CRC32C();
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16)) {
+                ByteBuffer header = ByteBuffer.allocate((int) base).order(BinaryGraphFormat.ORDER);
+                header.putInt(SNAPSHOT_MAGIC);
+                header.putInt(SNAPSHOT_VERSION);
+                header.putInt(key.length);
+                header.put(key);
+                out.write(header.array());
+                BinaryGraphFormat.write(graph, new CheckedOutputStream(out, crc));
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer checksum = ByteBuffer.allocate(8).order(BinaryGraphFormat.ORDER);
+                checksum.putLong(0, crc.getValue());
+                channel.write(checksum, 12L + key.length);
+            }
+            try {
+                Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
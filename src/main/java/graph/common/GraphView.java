@@ -0,0 +1,13 @@
+package graph.common;
+
+public interface GraphView {
+    int getVertices();
+    int countEdges();
+    int outDegree(int u);
+    int edgeTarget(int u, int i);
+    double edgeWeight(int u, int i);
+    String getTaskName(int id);
+    DegreeIndex getDegreeIndex();
+    GraphView reversed();
+    long getModificationCount();
+}
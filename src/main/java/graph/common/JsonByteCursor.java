@@ -0,0 +1,297 @@
+package graph.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+final class JsonByteCursor {
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final ByteBuffer bytes;
+    private int position;
+    private final int limit;
+    private byte[] scratch = new byte[64];
+
+    JsonByteCursor(ByteBuffer bytes, int position, int limit) {
+        this.bytes = bytes;
+        this.position = position;
+        this.limit = limit;
+    }
+
+    int position() {
+        return position;
+    }
+
+    boolean atEnd() {
+        skipWhitespace();
+        return position >= limit;
+    }
+
+    void expect(char expected) throws IOException {
+        skipWhitespace();
+        if (position >= limit || bytes.get(position) != expected) {
+            throw new IOException("Expected '" + expected + "' at byte " + position);
+        }
+        position++;
+    }
+
+    boolean consumeIf(char expected) {
+        skipWhitespace();
+        if (position < limit && bytes.get(position) == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    byte peek() throws IOException {
+        skipWhitespace();
+        if (position >= limit) {
+            throw new IOException("Unexpected end of graph file");
+        }
+        return bytes.get(position);
+    }
+
+    String readString() throws IOException {
+        expect('"');
+        int length = 0;
+        while (true) {
+            if (position >= limit) {
+                throw new IOException("Unterminated string");
+            }
+            byte b = bytes.get(position++);
+            if (b == '"') {
+                return new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+            if (length + 8 > scratch.length) {
+                scratch = Arrays.copyOf(scratch, scratch.length * 2);
+            }
+            if (b != '\\') {
+                scratch[length++] = b;
+                continue;
+            }
+            byte escaped = bytes.get(position++);
+            switch (escaped) {
+                case 'b': scratch[length++] = '\b'; break;
+                case 't': scratch[length++] = '\t'; break;
+                case 'n': scratch[length++] = '\n'; break;
+                case 'f': scratch[length++] = '\f'; break;
+                case 'r': scratch[length++] = '\r'; break;
+                case 'u':
+                    int codePoint = readHex4();
+                    if (Character.isHighSurrogate((char) codePoint) && position + 1 < limit
+                            && bytes.get(position) == '\\' && bytes.get(position + 1) == 'u') {
+                        int mark = position;
+                        position += 2;
+                        int low = readHex4();
+                        if (Character.isLowSurrogate((char) low)) {
+                            codePoint = Character.toCodePoint((char) codePoint, (char) low);
+                        } else {
+                            position = mark;
+                        }
+                    }
+                    length = encodeUtf8(codePoint, length);
+                    break;
+                default:
+                    scratch[length++] = escaped;
+            }
+        }
+    }
+
+    private int readHex4() throws IOException {
+        int code = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = position < limit ? Character.digit(bytes.get(position++), 16) : -1;
+            if (digit < 0) {
+                throw new IOException("Invalid unicode escape");
+            }
+            code = (code << 4) | digit;
+        }
+        return code;
+    }
+
+    private int encodeUtf8(int codePoint, int length) {
+        if (codePoint < 0x80) {
+            scratch[length++] = (byte) codePoint;
+        } else if (codePoint < 0x800) {
+            scratch[length++] = (byte) (0xC0 | (codePoint >> 6));
+            scratch[length++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else if (codePoint < 0x10000) {
+            scratch[length++] = (byte) (0xE0 | (codePoint >> 12));
+            scratch[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            scratch[length++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+            scratch[length++] = (byte) (0xF0 | (codePoint >> 18));
+            scratch[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            scratch[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            scratch[length++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+        return length;
+    }
+
+    double readNumber() throws IOException {
+        skipWhitespace();
+        int start = position;
+        while (position < limit) {
+            byte b = bytes.get(position);
+            if (!(b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E' || (b >= '0' && b <= '9'))) {
+                break;
+            }
+            position++;
+        }
+        if (position == start) {
+            throw new IOException("Expected number at byte " + start);
+        }
+        try {
+            return parseDouble(bytes, start, position);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid number at byte " + start);
+        }
+    }
+
+    void skipValue() throws IOException {
+        byte b = peek();
+        if (b == '"') {
+            readString();
+            return;
+        }
+        if (b != '{' && b != '[') {
+            readNumberOrLiteral();
+            return;
+        }
+        int end = skipContainer(position, 0, null);
+        position = end + 1;
+    }
+
+    private void readNumberOrLiteral() {
+        while (position < limit) {
+            byte b = bytes.get(position);
+            if (b == ',' || b == '}' || b == ']' || b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                break;
+            }
+            position++;
+        }
+    }
+
+    int skipContainer(int open, int chunkBytes, IntList boundaries) throws IOException {
+        int depth = 0;
+        boolean inString = false;
+        int lastBoundary = open;
+        for (int i = open; i < limit; i++) {
+            byte b = bytes.get(i);
+            if (inString) {
+                if (b == '\\') {
+                    i++;
+                } else if (b == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+            switch (b) {
+                case '"':
+                    inString = true;
+                    break;
+                case '{':
+                case '[':
+                    depth++;
+                    break;
+                case '}':
+                case ']':
+                    if (--depth == 0) {
+                        return i;
+                    }
+                    break;
+                case ',':
+                    if (boundaries != null && depth == 1 && i - lastBoundary >= chunkBytes) {
+                        boundaries.add(i);
+                        lastBoundary = i;
+                    }
+                    break;
+                default:
+            }
+        }
+        throw new IOException("Unterminated array or object");
+    }
+
+    void skipTo(int newPosition) {
+        this.position = newPosition;
+    }
+
+    private void skipWhitespace() {
+        while (position < limit) {
+            byte b = bytes.get(position);
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    static double parseDouble(ByteBuffer bytes, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (bytes.get(i) == '-' || bytes.get(i) == '+')) {
+            negative = bytes.get(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenDot = false;
+        boolean simple = i < end;
+        for (; i < end; i++) {
+            byte b = bytes.get(i);
+            if (b >= '0' && b <= '9') {
+                if (++digits > 15) {
+                    simple = false;
+                    break;
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (seenDot) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && !seenDot) {
+                seenDot = true;
+            } else {
+                simple = false;
+                break;
+            }
+        }
+
+        if (simple && digits > 0) {
+            double value = fractionDigits == 0 ? mantissa : mantissa / POWERS_OF_TEN[fractionDigits];
+            return negative ? -value : value;
+        }
+
+        byte[] text = new byte[end - start];
+        for (int k = 0; k < text.length; k++) {
+            text[k] = bytes.get(start + k);
+        }
+        return Double.parseDouble(new String(text, StandardCharsets.ISO_8859_1));
+    }
+
+    static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
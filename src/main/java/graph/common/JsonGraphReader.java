@@ -0,0 +1,301 @@
+package graph.common;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+final class JsonGraphReader {
+    private final Reader reader;
+    private final char[] buffer = new char[1 << 16];
+    private final StringBuilder text = new StringBuilder();
+    private int position;
+    private int limit;
+
+    private int vertices = -1;
+    private List<String> tasks;
+    private final TaskNameIndex pendingNames = new TaskNameIndex();
+    private final List<String> pendingNameList = new ArrayList<>();
+    private int[] edgeFrom = new int[16];
+    private int[] edgeTo = new int[16];
+    private double[] edgeWeight = new double[16];
+    private int edgeCount;
+
+    JsonGraphReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    Graph read() throws IOException {
+        expect('{');
+        if (!consumeIf('}')) {
+            do {
+                String key = readString();
+                expect(':');
+                switch (key) {
+                    case "vertices":
+                        vertices = (int) readNumber();
+                        break;
+                    case "tasks":
+                        readTasks();
+                        break;
+                    case "edges":
+                        readEdges();
+                        break;
+                    default:
+                        skipValue();
+                }
+            } while (consumeIf(','));
+            expect('}');
+        }
+
+        if (vertices < 0) {
+            throw new IOException("Missing 'vertices' in graph file");
+        }
+        if (tasks == null) {
+            throw new IOException("Missing 'tasks' in graph file");
+        }
+
+        Graph graph = new Graph(vertices);
+        for (int i = 0; i < tasks.size(); i++) {
+            graph.setTaskName(i, tasks.get(i));
+        }
+
+        int[] resolved = new int[pendingNameList.size()];
+        for (int i = 0; i < resolved.length; i++) {
+            resolved[i] = graph.findTaskId(pendingNameList.get(i));
+        }
+
+        for (int i = 0; i < edgeCount; i++) {
+            int from = resolved[edgeFrom[i]];
+            int to = resolved[edgeTo[i]];
+            if (from >= 0 && to >= 0) {
+                graph.addEdge(from, to, edgeWeight[i]);
+            }
+        }
+        return graph;
+    }
+
+    private void readTasks() throws IOException {
+        tasks = new ArrayList<>(Math.max(vertices, 0));
+        expect('[');
+        if (!consumeIf(']')) {
+            do {
+                tasks.add(readString());
+            } while (consumeIf(','));
+            expect(']');
+        }
+    }
+
+    private void readEdges() throws IOException {
+        expect('[');
+        if (consumeIf(']')) {
+            return;
+        }
+        do {
+            int from = -1;
+            int to = -1;
+            double weight = 1.0;
+
+            expect('{');
+            if (!consumeIf('}')) {
+                do {
+                    String key = readString();
+                    expect(':');
+                    switch (key) {
+                        case "from":
+                            from = intern(readString());
+                            break;
+                        case "to":
+                            to = intern(readString());
+                            break;
+                        case "weight":
+                            weight = peek() == '"' ? parseWeight(readString()) : readNumber();
+                            break;
+                        default:
+                            skipValue();
+                    }
+                } while (consumeIf(','));
+                expect('}');
+            }
+
+            if (from < 0 || to < 0) {
+                throw new IOException("Edge is missing 'from' or 'to'");
+            }
+            addPendingEdge(from, to, weight);
+        } while (consumeIf(','));
+        expect(']');
+    }
+
+    private int intern(String name) {
+        int id = pendingNames.get(name);
+        if (id < 0) {
+            id = pendingNameList.size();
+            pendingNames.put(name, id);
+            pendingNameList.add(name);
+        }
+        return id;
+    }
+
+    private void addPendingEdge(int from, int to, double weight) {
+        if (edgeCount == edgeFrom.length) {
+            int capacity = edgeCount * 2;
+            edgeFrom = Arrays.copyOf(edgeFrom, capacity);
+            edgeTo = Arrays.copyOf(edgeTo, capacity);
+            edgeWeight = Arrays.copyOf(edgeWeight, capacity);
+        }
+        edgeFrom[edgeCount] = from;
+        edgeTo[edgeCount] = to;
+        edgeWeight[edgeCount] = weight;
+        edgeCount++;
+    }
+
+    static double parseWeight(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return 1.0;
+        }
+    }
+
+    private String readString() throws IOException {
+        expect('"');
+        text.setLength(0);
+        while (true) {
+            char c = next();
+            if (c == '"') {
+                return text.toString();
+            }
+            if (c != '\\') {
+                text.append(c);
+                continue;
+            }
+            char escaped = next();
+            switch (escaped) {
+                case 'b': text.append('\b'); break;
+                case 't': text.append('\t'); break;
+                case 'n': text.append('\n'); break;
+                case 'f': text.append('\f'); break;
+                case 'r': text.append('\r'); break;
+                case 'u':
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(next(), 16);
+                        if (digit < 0) {
+                            throw new IOException("Invalid unicode escape");
+                        }
+                        code = (code << 4) | digit;
+                    }
+                    text.append((char) code);
+                    break;
+                default:
+                    text.append(escaped);
+            }
+        }
+    }
+
+    private double readNumber() throws IOException {
+        skipWhitespace();
+        text.setLength(0);
+        while (true) {
+            int c = peekRaw();
+            if (c < 0 || !(c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E' || (c >= '0' && c <= '9'))) {
+                break;
+            }
+            text.append((char) c);
+            position++;
+        }
+        if (text.length() == 0) {
+            throw new IOException("Expected number");
+        }
+        try {
+            return Double.parseDouble(text.toString());
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid number: " + text);
+        }
+    }
+
+    private void skipValue() throws IOException {
+        char c = peek();
+        if (c == '"') {
+            readString();
+        } else if (c == '{' || c == '[') {
+            int depth = 0;
+            do {
+                c = next();
+                if (c == '"') {
+                    position--;
+                    readString();
+                } else if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                }
+            } while (depth > 0);
+        } else {
+            while (true) {
+                int raw = peekRaw();
+                if (raw < 0 || raw == ',' || raw == '}' || raw == ']' || Character.isWhitespace(raw)) {
+                    break;
+                }
+                position++;
+            }
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        char c = peek();
+        if (c != expected) {
+            throw new IOException("Expected '" + expected + "' but found '" + c + "'");
+        }
+        position++;
+    }
+
+    private boolean consumeIf(char expected) throws IOException {
+        if (peek() == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private char peek() throws IOException {
+        skipWhitespace();
+        int c = peekRaw();
+        if (c < 0) {
+            throw new IOException("Unexpected end of graph file");
+        }
+        return (char) c;
+    }
+
+    private char next() throws IOException {
+        int c = peekRaw();
+        if (c < 0) {
+            throw new IOException("Unexpected end of graph file");
+        }
+        position++;
+        return (char) c;
+    }
+
+    private void skipWhitespace() throws IOException {
+        while (true) {
+            int c = peekRaw();
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private int peekRaw() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+}
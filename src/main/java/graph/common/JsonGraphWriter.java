@@ -0,0 +1,169 @@
+package graph.common;
+
+import java.io.IOException;
+import java.io.Writer;
+
+final class JsonGraphWriter {
+    private final Writer writer;
+    private final boolean pretty;
+
+    JsonGraphWriter(Writer writer, boolean pretty) {
+        this.writer = writer;
+        this.pretty = pretty;
+    }
+
+    void write(GraphView graph) throws IOException {
+        int n = graph.getVertices();
+        int m = graph.countEdges();
+
+        writer.write('{');
+        newline(2);
+        key("vertices");
+        writer.write(Integer.toString(n));
+        writer.write(',');
+        newline(2);
+        key("edges");
+        writeEdges(graph, m);
+        writer.write(',');
+        newline(2);
+        key("tasks");
+        writeTasks(graph, n);
+        newline(0);
+        writer.write('}');
+        writer.flush();
+    }
+
+    private void writeEdges(GraphView graph, int m) throws IOException {
+        writer.write('[');
+        if (m == 1) {
+            for (int u = 0; u < graph.getVertices(); u++) {
+                if (graph.outDegree(u) > 0) {
+                    writeEdge(graph, u, 0, 2);
+                }
+            }
+        } else if (m > 1) {
+            boolean needsComma = false;
+            for (int u = 0; u < graph.getVertices(); u++) {
+                int degree = graph.outDegree(u);
+                for (int i = 0; i < degree; i++) {
+                    if (needsComma) {
+                        writer.write(',');
+                    }
+                    newline(4);
+                    writeEdge(graph, u, i, 4);
+                    needsComma = true;
+                }
+            }
+            newline(2);
+        }
+        writer.write(']');
+    }
+
+    private void writeEdge(GraphView graph, int u, int i, int indent) throws IOException {
+        writer.write('{');
+        newline(indent + 2);
+        key("weight");
+        writeNumber(graph.edgeWeight(u, i));
+        writer.write(',');
+        newline(indent + 2);
+        key("from");
+        writeString(graph.getTaskName(u));
+        writer.write(',');
+        newline(indent + 2);
+        key("to");
+        writeString(graph.getTaskName(graph.edgeTarget(u, i)));
+        newline(indent);
+        writer.write('}');
+    }
+
+    private void writeTasks(GraphView graph, int n) throws IOException {
+        writer.write('[');
+        if (n == 1) {
+            writeString(graph.getTaskName(0));
+        } else if (n > 1) {
+            for (int i = 0; i < n; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                newline(4);
+                writeString(graph.getTaskName(i));
+            }
+            newline(2);
+        }
+        writer.write(']');
+    }
+
+    private void key(String name) throws IOException {
+        writer.write('"');
+        writer.write(name);
+        writer.write(pretty ? "\": " : "\":");
+    }
+
+    private void newline(int indent) throws IOException {
+        if (!pretty) {
+            return;
+        }
+        writer.write('\n');
+        for (int i = 0; i < indent; i++) {
+            writer.write(' ');
+        }
+    }
+
+    private void writeNumber(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("JSON does not allow non-finite numbers: " + value);
+        }
+        String s = Double.toString(value);
+        if (s.indexOf('.') > 0 && s.indexOf('e') < 0 && s.indexOf('E') < 0) {
+            int end = s.length();
+            while (s.charAt(end - 1) == '0') {
+                end--;
+            }
+            if (s.charAt(end - 1) == '.') {
+                end--;
+            }
+            writer.write(s, 0, end);
+        } else {
+            writer.write(s);
+        }
+    }
+
+    private void writeString(String s) throws IOException {
+        writer.write('"');
+        char previous = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '\\':
+                case '"':
+                    writer.write('\\');
+                    writer.write(c);
+                    break;
+                case '/':
+                    if (previous == '<') {
+                        writer.write('\\');
+                    }
+                    writer.write(c);
+                    break;
+                case '\b': writer.write("\\b"); break;
+                case '\t': writer.write("\\t"); break;
+                case '\n': writer.write("\\n"); break;
+                case '\f': writer.write("\\f"); break;
+                case '\r': writer.write("\\r"); break;
+                default:
+                    if (c < ' ' || (c >= '\u0080' && c < '\u00a0') || (c >= '\u2000' && c < '\u2100')) {
+                        String hex = Integer.toHexString(c);
+                        writer.write("\\u");
+                        for (int pad = hex.length(); pad < 4; pad++) {
+                            writer.write('0');
+                        }
+                        writer.write(hex);
+                    } else {
+                        writer.write(c);
+                    }
+            }
+            previous = c;
+        }
+        writer.write('"');
+    }
+}
@@ -0,0 +1,67 @@
+package graph.common;
+
+abstract class LongHashTable {
+    static final long EMPTY = 0L;
+
+    long[] keys;
+    boolean containsEmpty;
+    int size;
+
+    LongHashTable(int capacity) {
+        this.keys = new long[capacity];
+    }
+
+    static int capacityFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    final int slotOf(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        long current;
+        while ((current = keys[slot]) != EMPTY) {
+            if (current == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -(slot + 1);
+    }
+
+    final boolean insertAt(int slot, long key) {
+        keys[slot] = key;
+        return ++size * 2 > keys.length;
+    }
+
+    final void rehash(int[] values, int[] newValues) {
+        long[] oldKeys = keys;
+        keys = new long[oldKeys.length * 2];
+
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                if (values != null) {
+                    newValues[slot] = values[i];
+                }
+            }
+        }
+    }
+
+    static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
@@ -0,0 +1,48 @@
+package graph.common;
+
+public class LongIntHashMap extends LongHashTable {
+    private int[] values;
+    private int emptyValue;
+
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        super(capacityFor(expectedSize));
+        this.values = new int[keys.length];
+    }
+
+    public int get(long key) {
+        if (key == EMPTY) {
+            return containsEmpty ? emptyValue : -1;
+        }
+        int slot = slotOf(key);
+        return slot >= 0 ? values[slot] : -1;
+    }
+
+    public int putIfAbsent(long key, int value) {
+        if (key == EMPTY) {
+            if (containsEmpty) {
+                return emptyValue;
+            }
+            containsEmpty = true;
+            emptyValue = value;
+            size++;
+            return -1;
+        }
+
+        int slot = slotOf(key);
+        if (slot >= 0) {
+            return values[slot];
+        }
+        slot = -slot - 1;
+        values[slot] = value;
+        if (insertAt(slot, key)) {
+            int[] grown = new int[keys.length * 2];
+            rehash(values, grown);
+            values = grown;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,163 @@
+package graph.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class MappedGraph implements GraphView {
+    private final int vertices;
+    private final int edges;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final DoubleBuffer weights;
+    private final IntBuffer nameOffsets;
+    private final ByteBuffer names;
+    private DegreeIndex degreeIndex;
+    private CSRGraph reversed;
+
+    private MappedGraph(FileChannel channel, long base) throws IOException {
+        ByteBuffer header = map(channel, base, BinaryGraphFormat.HEADER_BYTES);
+        if (header.getInt(0) != BinaryGraphFormat.MAGIC) {
+            throw new IOException("Not a binary graph file");
+        }
+        if (header.getInt(4) != BinaryGraphFormat.VERSION) {
+            throw new IOException("Unsupported binary graph version: " + header.getInt(4));
+        }
+
+        this.vertices = header.getInt(8);
+        this.edges = header.getInt(12);
+        long namesBytes = header.getLong(16);
+
+        this.offsets = map(channel, base + BinaryGraphFormat.offsetsPosition(),
+                4L * (vertices + 1)).asIntBuffer();
+        this.targets = map(channel, base + BinaryGraphFormat.targetsPosition(vertices),
+                4L * edges).asIntBuffer();
+        this.weights = map(channel, base + BinaryGraphFormat.weightsPosition(vertices, edges),
+                8L * edges).asDoubleBuffer();
+        this.nameOffsets = map(channel, base + BinaryGraphFormat.nameOffsetsPosition(vertices, edges),
+                4L * (vertices + 1)).asIntBuffer();
+        this.names = map(channel, base + BinaryGraphFormat.namesPosition(vertices, edges), namesBytes);
+    }
+
+    public static MappedGraph open(Path path) throws IOException {
+        return open(path, 0L);
+    }
+
+    public static MappedGraph open(Path path, long base) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MappedGraph(channel, base);
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Graph section too large to map: " + size + " bytes");
+        }
+        if (position + size > channel.size()) {
+            throw new IOException("Truncated binary graph file");
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        buffer.order(BinaryGraphFormat.ORDER);
+        return buffer;
+    }
+
+    @Override
+    public int getVertices() {
+        return vertices;
+    }
+
+    @Override
+    public int countEdges() {
+        return edges;
+    }
+
+    @Override
+    public int outDegree(int u) {
+        return offsets.get(u + 1) - offsets.get(u);
+    }
+
+    @Override
+    public int edgeTarget(int u, int i) {
+        return targets.get(offsets.get(u) + i);
+    }
+
+    @Override
+    public double edgeWeight(int u, int i) {
+        return weights.get(offsets.get(u) + i);
+    }
+
+    public int edgeStart(int u) {
+        return offsets.get(u);
+    }
+
+    public int edgeEnd(int u) {
+        return offsets.get(u + 1);
+    }
+
+    public int getTarget(int e) {
+        return targets.get(e);
+    }
+
+    public double getWeight(int e) {
+        return weights.get(e);
+    }
+
+    @Override
+    public long getModificationCount() {
+        return 0L;
+    }
+
+    @Override
+    public DegreeIndex getDegreeIndex() {
+        DegreeIndex index = degreeIndex;
+        if (index == null) {
+            index = new DegreeIndex(this);
+            degreeIndex = index;
+        }
+        return index;
+    }
+
+    @Override
+    public CSRGraph reversed() {
+        CSRGraph view = reversed;
+        if (view == null) {
+            String[] taskNames = new String[vertices];
+            for (int u = 0; u < vertices; u++) {
+                taskNames[u] = getTaskName(u);
+            }
+            view = CSRGraph.reverseOf(this, taskNames);
+            reversed = view;
+        }
+        return view;
+    }
+
+    @Override
+    public String getTaskName(int id) {
+        int start = nameOffsets.get(id);
+        byte[] bytes = new byte[nameOffsets.get(id + 1) - start];
+        names.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public Graph toGraph() {
+        Graph graph = new Graph(vertices);
+        for (int u = 0; u < vertices; u++) {
+            graph.setTaskName(u, getTaskName(u));
+            for (int e = offsets.get(u); e < offsets.get(u + 1); e++) {
+                graph.addEdge(u, targets.get(e), weights.get(e));
+            }
+        }
+        return graph;
+    }
+
+    @Override
+    public String toString() {
+        return "MappedGraph with " + vertices + " vertices and " + edges + " edges";
+    }
+}
@@ -6,6 +6,7 @@ public interface Metrics {
     long getElapsedTimeNanos();
     double getElapsedTimeMillis();
     void incrementCounter(String operation);
+    void addCounter(String operation, long amount);
     long getCounter(String operation);
     void reset();
     String getSummary();
@@ -0,0 +1,236 @@
+package graph.common;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+final class ParallelJsonGraphLoader {
+    private static final int MIN_CHUNK_BYTES = 1 << 16;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final ByteBuffer bytes;
+    private final int parallelism;
+
+    private ParallelJsonGraphLoader(ByteBuffer bytes, int parallelism) {
+        this.bytes = bytes;
+        this.parallelism = parallelism;
+    }
+
+    static Graph load(Path path, int parallelism) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("File too large for chunked loading: " + path);
+            }
+            ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ParallelJsonGraphLoader(bytes, parallelism).load();
+        }
+    }
+
+    private Graph load() throws IOException {
+        int limit = bytes.limit();
+        int chunkBytes = Math.max(MIN_CHUNK_BYTES, limit / (parallelism * CHUNKS_PER_THREAD));
+
+        JsonByteCursor cursor = new JsonByteCursor(bytes, 0, limit);
+        int vertices = -1;
+        List<String> tasks = null;
+        JsonByteCursor.IntList boundaries = null;
+
+        cursor.expect('{');
+        if (!cursor.consumeIf('}')) {
+            do {
+                String key = cursor.readString();
+                cursor.expect(':');
+                switch (key) {
+                    case "vertices":
+                        vertices = (int) cursor.readNumber();
+                        break;
+                    case "tasks":
+                        tasks = readTasks(cursor);
+                        break;
+                    case "edges":
+                        if (cursor.peek() != '[') {
+                            throw new IOException("'edges' must be an array");
+                        }
+                        boundaries = new JsonByteCursor.IntList();
+                        int open = cursor.position();
+                        boundaries.add(open);
+                        int close = cursor.skipContainer(open, chunkBytes, boundaries);
+                        boundaries.add(close);
+                        cursor.skipTo(close + 1);
+                        break;
+                    default:
+                        cursor.skipValue();
+                }
+            } while (cursor.consumeIf(','));
+            cursor.expect('}');
+        }
+
+        if (vertices < 0) {
+            throw new IOException("Missing 'vertices' in graph file");
+        }
+        if (tasks == null) {
+            throw new IOException("Missing 'tasks' in graph file");
+        }
+
+        Graph graph = new Graph(vertices);
+        for (int i = 0; i < tasks.size(); i++) {
+            graph.setTaskName(i, tasks.get(i));
+        }
+        if (boundaries == null) {
+            return graph;
+        }
+
+        List<ChunkTask> chunks = new ArrayList<>();
+        for (int i = 0; i + 1 < boundaries.size(); i++) {
+            chunks.add(new ChunkTask(boundaries.get(i) + 1, boundaries.get(i + 1), graph));
+        }
+
+        ForkJoinPool pool = parallelism == ForkJoinPool.getCommonPoolParallelism()
+                ? ForkJoinPool.commonPool() : new ForkJoinPool(parallelism);
+        try {
+            List<EdgeBuffer> parsed = pool.invoke(new RecursiveTask<List<EdgeBuffer>>() {
+                @Override
+                protected List<EdgeBuffer> compute() {
+                    invokeAll(chunks);
+                    List<EdgeBuffer> results = new ArrayList<>(chunks.size());
+                    for (ChunkTask chunk : chunks) {
+                        results.add(chunk.join());
+                    }
+                    return results;
+                }
+            });
+
+            for (EdgeBuffer buffer : parsed) {
+                for (int i = 0; i < buffer.size; i++) {
+                    graph.addEdge(buffer.from[i], buffer.to[i], buffer.weight[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+            }
+            throw e;
+        } finally {
+            if (pool != ForkJoinPool.commonPool()) {
+                pool.shutdown();
+            }
+        }
+        return graph;
+    }
+
+    private static List<String> readTasks(JsonByteCursor cursor) throws IOException {
+        List<String> tasks = new ArrayList<>();
+        cursor.expect('[');
+        if (!cursor.consumeIf(']')) {
+            do {
+                tasks.add(cursor.readString());
+            } while (cursor.consumeIf(','));
+            cursor.expect(']');
+        }
+        return tasks;
+    }
+
+    private static final class EdgeBuffer {
+        int[] from = new int[256];
+        int[] to = new int[256];
+        double[] weight = new double[256];
+        int size;
+
+        void add(int u, int v, double w) {
+            if (size == from.length) {
+                from = Arrays.copyOf(from, size * 2);
+                to = Arrays.copyOf(to, size * 2);
+                weight = Arrays.copyOf(weight, size * 2);
+            }
+            from[size] = u;
+            to[size] = v;
+            weight[size] = w;
+            size++;
+        }
+    }
+
+    private final class ChunkTask extends RecursiveTask<EdgeBuffer> {
+        private static final long serialVersionUID = 1L;
+
+        private final int start;
+        private final int end;
+        private final Graph graph;
+
+        ChunkTask(int start, int end, Graph graph) {
+            this.start = start;
+            this.end = end;
+            this.graph = graph;
+        }
+
+        @Override
+        protected EdgeBuffer compute() {
+            try {
+                return parse();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private EdgeBuffer parse() throws IOException {
+            EdgeBuffer buffer = new EdgeBuffer();
+            JsonByteCursor cursor = new JsonByteCursor(bytes, start, end);
+            if (cursor.atEnd()) {
+                return buffer;
+            }
+
+            do {
+                int from = -1;
+                int to = -1;
+                boolean hasFrom = false;
+                boolean hasTo = false;
+                double weight = 1.0;
+
+                cursor.expect('{');
+                if (!cursor.consumeIf('}')) {
+                    do {
+                        String key = cursor.readString();
+                        cursor.expect(':');
+                        switch (key) {
+                            case "from":
+                                from = graph.findTaskId(cursor.readString());
+                                hasFrom = true;
+                                break;
+                            case "to":
+                                to = graph.findTaskId(cursor.readString());
+                                hasTo = true;
+                                break;
+                            case "weight":
+                                weight = cursor.peek() == '"' ? JsonGraphReader.parseWeight(cursor.readString()) : cursor.readNumber();
+                                break;
+                            default:
+                                cursor.skipValue();
+                        }
+                    } while (cursor.consumeIf(','));
+                    cursor.expect('}');
+                }
+
+                if (!hasFrom || !hasTo) {
+                    throw new IOException("Edge is missing 'from' or 'to'");
+                }
+                if (from >= 0 && to >= 0) {
+                    buffer.add(from, to, weight);
+                }
+            } while (cursor.consumeIf(','));
+
+            if (!cursor.atEnd()) {
+                throw new IOException("Unexpected content in edge chunk at byte " + cursor.position());
+            }
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package graph.common;
+
+public class TaskNameIndex {
+    private String[] keys;
+    private int[] values;
+    private int size;
+
+    public TaskNameIndex() {
+        this(16);
+    }
+
+    public TaskNameIndex(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        this.keys = new String[capacity];
+        this.values = new int[capacity];
+    }
+
+    public int get(String name) {
+        int mask = keys.length - 1;
+        int slot = mix(name.hashCode()) & mask;
+        String key;
+        while ((key = keys[slot]) != null) {
+            if (key.equals(name)) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    public void put(String name, int id) {
+        int mask = keys.length - 1;
+        int slot = mix(name.hashCode()) & mask;
+        String key;
+        while ((key = keys[slot]) != null) {
+            if (key.equals(name)) {
+                values[slot] = id;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = name;
+        values[slot] = id;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void grow() {
+        String[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new String[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = mix(oldKeys[i].hashCode()) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,242 @@
+package graph.dagsp;
+
+import graph.common.GraphView;
+import graph.common.Metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AllPairsDAGDistances {
+    private static final int SOURCES_PER_TASK = 16;
+
+    private final GraphView graph;
+    private final Metrics metrics;
+    private final ForkJoinPool pool;
+    private final DAGPathQuery query;
+
+    private int[] offsets;
+    private int[] targets;
+    private double[] weights;
+    private int[] position;
+    private int[] order;
+    private long orderVersion = -1;
+
+    public AllPairsDAGDistances(GraphView graph, Metrics metrics) {
+        this(graph, metrics, ForkJoinPool.commonPool());
+    }
+
+    public AllPairsDAGDistances(GraphView graph, Metrics metrics, ForkJoinPool pool) {
+        this.graph = graph;
+        this.metrics = metrics;
+        this.pool = pool;
+        this.query = new DAGPathQuery(graph, metrics);
+    }
+
+    public AllPairsResult shortestDistances() {
+        return shortestDistances(DistanceMatrix.inMemory(graph.getVertices(), DistanceMatrix.Precision.DOUBLE));
+    }
+
+    public AllPairsResult longestDistances() {
+        return longestDistances(DistanceMatrix.inMemory(graph.getVertices(), DistanceMatrix.Precision.DOUBLE));
+    }
+
+    public AllPairsResult shortestDistances(DistanceMatrix matrix) {
+        return compute(matrix, false);
+    }
+
+    public AllPairsResult longestDistances(DistanceMatrix matrix) {
+        return compute(matrix, true);
+    }
+
+    private AllPairsResult compute(DistanceMatrix matrix, boolean longest) {
+        int n = graph.getVertices();
+        if (matrix.size() != n) {
+            throw new IllegalArgumentException("Matrix size " + matrix.size() + " does not match " + n + " vertices");
+        }
+
+        metrics.startTiming();
+
+        if (!query.isAcyclic()) {
+            metrics.stopTiming();
+            return new AllPairsResult(matrix, metrics, false);
+        }
+        prepare();
+
+        AtomicLong relaxations = new AtomicLong();
+        SweepTask task = new SweepTask(matrix, longest, relaxations, 0, n);
+        if (n <= SOURCES_PER_TASK) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+
+        metrics.stopTiming();
+        metrics.addCounter("sources", n);
+        metrics.addCounter("relaxations", relaxations.get());
+
+        return new AllPairsResult(matrix, metrics, true);
+    }
+
+    private void prepare() {
+        long version = query.getVersion();
+        if (order != null && version == orderVersion) {
+            return;
+        }
+
+        int[] current = query.order();
+
+        int n = current.length;
+        position = new int[n];
+        for (int i = 0; i < n; i++) {
+            position[current[i]] = i;
+        }
+
+        offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] = offsets[i] + graph.outDegree(current[i]);
+        }
+        targets = new int[offsets[n]];
+        weights = new double[offsets[n]];
+        for (int i = 0; i < n; i++) {
+            int u = current[i];
+            int base = offsets[i];
+            int degree = graph.outDegree(u);
+            for (int j = 0; j < degree; j++) {
+                targets[base + j] = position[graph.edgeTarget(u, j)];
+                weights[base + j] = graph.edgeWeight(u, j);
+            }
+        }
+        order = current;
+        orderVersion = version;
+    }
+
+    private long sweep(int source, boolean longest, Workspace workspace, DistanceMatrix matrix) {
+        int n = order.length;
+        double unreached = longest ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        double[] dist = workspace.dist;
+        double[] row = workspace.row;
+        int start = position[source];
+
+        Arrays.fill(dist, start, n, unreached);
+        dist[start] = 0;
+
+        long relaxations = 0;
+        for (int i = start; i < n; i++) {
+            double du = dist[i];
+            if (du == unreached) {
+                continue;
+            }
+            int end = offsets[i + 1];
+            relaxations += end - offsets[i];
+            if (longest) {
+                for (int e = offsets[i]; e < end; e++) {
+                    int v = targets[e];
+                    dist[v] = Math.max(dist[v], du + weights[e]);
+                }
+            } else {
+                for (int e = offsets[i]; e < end; e++) {
+                    int v = targets[e];
+                    dist[v] = Math.min(dist[v], du + weights[e]);
+                }
+            }
+        }
+
+        for (int i = 0; i < start; i++) {
+            row[order[i]] = unreached;
+        }
+        for (int i = start; i < n; i++) {
+            row[order[i]] = dist[i];
+        }
+        matrix.setRow(source, row);
+        return relaxations;
+    }
+
+    private static final class Workspace {
+        final double[] dist;
+        final double[] row;
+
+        Workspace(int n) {
+            this.dist = new double[n];
+            this.row = new double[n];
+        }
+    }
+
+    private final class SweepTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final DistanceMatrix matrix;
+        private final boolean longest;
+        private final AtomicLong relaxations;
+        private final int from;
+        private final int to;
+
+        SweepTask(DistanceMatrix matrix, boolean longest, AtomicLong relaxations, int from, int to) {
+            this.matrix = matrix;
+            this.longest = longest;
+            this.relaxations = relaxations;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SOURCES_PER_TASK && getPool() != null) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new SweepTask(matrix, longest, relaxations, from, mid),
+                        new SweepTask(matrix, longest, relaxations, mid, to));
+                return;
+            }
+
+            Workspace workspace = new Workspace(order.length);
+            long count = 0;
+            for (int source = from; source < to; source++) {
+                count += sweep(source, longest, workspace, matrix);
+            }
+            relaxations.addAndGet(count);
+        }
+    }
+
+    public static class AllPairsResult {
+        public final DistanceMatrix matrix;
+        public final Metrics metrics;
+        public final boolean isValid;
+
+        public AllPairsResult(DistanceMatrix matrix, Metrics metrics, boolean isValid) {
+            this.matrix = matrix;
+            this.metrics = metrics;
+            this.isValid = isValid;
+        }
+
+        public double getDistance(int from, int to) {
+            if (!isValid) {
+                throw new IllegalStateException("Graph contains a cycle");
+            }
+            return matrix.get(from, to);
+        }
+
+        public void printResults(GraphView graph) {
+            System.out.println("All-Pairs DAG Distances");
+
+            if (!isValid) {
+                System.out.println("ERROR: Graph contains a cycle!");
+                return;
+            }
+
+            for (int from = 0; from < matrix.size(); from++) {
+                System.out.print(graph.getTaskName(from) + ":");
+                for (int to = 0; to < matrix.size(); to++) {
+                    double d = matrix.get(from, to);
+                    if (!Double.isInfinite(d)) {
+                        System.out.print("  " + graph.getTaskName(to) + "=" + d);
+                    }
+                }
+                System.out.println();
+            }
+
+            System.out.println("\nMetrics");
+            System.out.println(metrics.getSummary());
+        }
+    }
+}
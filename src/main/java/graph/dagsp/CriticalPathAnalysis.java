@@ -0,0 +1,156 @@
+package graph.dagsp;
+
+import graph.common.GraphView;
+import graph.common.Metrics;
+
+import java.util.Arrays;
+
+public class CriticalPathAnalysis {
+    private static final double SLACK_TOLERANCE = 1e-9;
+
+    private final GraphView graph;
+    private final Metrics metrics;
+    private final DAGPathQuery query;
+
+    public CriticalPathAnalysis(GraphView graph, Metrics metrics) {
+        this(graph, metrics, new DAGPathQuery(graph, metrics));
+    }
+
+    public CriticalPathAnalysis(GraphView graph, Metrics metrics, DAGPathQuery query) {
+        this.graph = graph;
+        this.metrics = metrics;
+        this.query = query;
+    }
+
+    public ScheduleResult analyze() {
+        int n = graph.getVertices();
+
+        metrics.startTiming();
+
+        if (!query.isAcyclic()) {
+            metrics.stopTiming();
+            return new ScheduleResult(new double[0], new double[0], new double[0], new double[0],
+                    new int[0], 0, metrics, false);
+        }
+        int[] order = query.order();
+
+        double[] earliest = new double[n];
+        Arrays.fill(earliest, Double.NEGATIVE_INFINITY);
+        double projectLength = n == 0 ? 0 : Double.NEGATIVE_INFINITY;
+        long relaxations = 0;
+
+        for (int i = 0; i < n; i++) {
+            int u = order[i];
+            if (earliest[u] == Double.NEGATIVE_INFINITY) {
+                earliest[u] = 0;
+            }
+            double start = earliest[u];
+            projectLength = Math.max(projectLength, start);
+
+            int degree = graph.outDegree(u);
+            relaxations += degree;
+            for (int j = 0; j < degree; j++) {
+                int v = graph.edgeTarget(u, j);
+                earliest[v] = Math.max(earliest[v], start + graph.edgeWeight(u, j));
+            }
+        }
+
+        double[] latest = new double[n];
+        double[] totalSlack = new double[n];
+        double[] freeSlack = new double[n];
+        double tolerance = tolerance(projectLength);
+        int critical = 0;
+
+        for (int i = n - 1; i >= 0; i--) {
+            int u = order[i];
+            double late = projectLength;
+            double free = projectLength;
+
+            int degree = graph.outDegree(u);
+            relaxations += degree;
+            for (int j = 0; j < degree; j++) {
+                int v = graph.edgeTarget(u, j);
+                double weight = graph.edgeWeight(u, j);
+                late = Math.min(late, latest[v] - weight);
+                free = Math.min(free, earliest[v] - weight);
+            }
+
+            latest[u] = late;
+            totalSlack[u] = late - earliest[u];
+            freeSlack[u] = free - earliest[u];
+            if (totalSlack[u] <= tolerance) {
+                critical++;
+            }
+        }
+
+        int[] criticalTasks = new int[critical];
+        int next = 0;
+        for (int i = 0; i < n; i++) {
+            int u = order[i];
+            if (totalSlack[u] <= tolerance) {
+                criticalTasks[next++] = u;
+            }
+        }
+
+        metrics.stopTiming();
+        metrics.addCounter("relaxations", relaxations);
+        metrics.addCounter("critical_tasks", critical);
+
+        return new ScheduleResult(earliest, latest, totalSlack, freeSlack, criticalTasks, projectLength, metrics, true);
+    }
+
+    private static double tolerance(double projectLength) {
+        return SLACK_TOLERANCE * Math.max(1.0, Math.abs(projectLength));
+    }
+
+    public static class ScheduleResult {
+        public final double[] earliestStart;
+        public final double[] latestStart;
+        public final double[] totalSlack;
+        public final double[] freeSlack;
+        public final int[] criticalTasks;
+        public final double projectLength;
+        public final Metrics metrics;
+        public final boolean isValid;
+
+        public ScheduleResult(double[] earliestStart, double[] latestStart, double[] totalSlack, double[] freeSlack,
+                              int[] criticalTasks, double projectLength, Metrics metrics, boolean isValid) {
+            this.earliestStart = earliestStart;
+            this.latestStart = latestStart;
+            this.totalSlack = totalSlack;
+            this.freeSlack = freeSlack;
+            this.criticalTasks = criticalTasks;
+            this.projectLength = projectLength;
+            this.metrics = metrics;
+            this.isValid = isValid;
+        }
+
+        public boolean isCritical(int task) {
+            return totalSlack[task] <= tolerance(projectLength);
+        }
+
+        public void printResults(GraphView graph) {
+            System.out.println("Critical Path Analysis");
+
+            if (!isValid) {
+                System.out.println("ERROR: Graph contains a cycle!");
+                return;
+            }
+
+            System.out.println("Project length: " + projectLength);
+            for (int v = 0; v < earliestStart.length; v++) {
+                System.out.println(graph.getTaskName(v) + ": ES=" + earliestStart[v] + " LS=" + latestStart[v]
+                        + " total slack=" + totalSlack[v] + " free slack=" + freeSlack[v]);
+            }
+
+            System.out.print("Critical tasks:");
+            for (int task : criticalTasks) {
+                System.out.print("  " + graph.getTaskName(task));
+            }
+            System.out.println();
+
+            System.out.println("\nMetrics");
+            System.out.println(metrics.getSummary());
+        }
+    }
+}
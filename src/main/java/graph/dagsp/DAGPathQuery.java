@@ -0,0 +1,239 @@
+package graph.dagsp;
+
+import graph.common.BasicMetrics;
+import graph.common.GraphView;
+import graph.common.Metrics;
+import graph.topo.TopologicalSort;
+
+import java.util.Arrays;
+
+public class DAGPathQuery {
+    private final GraphView graph;
+    private final Metrics metrics;
+
+    private int[] order;
+    private int[] position;
+    private long version = -1;
+
+    public DAGPathQuery(GraphView graph, Metrics metrics) {
+        this.graph = graph;
+        this.metrics = metrics;
+    }
+
+    public int[] getTopologicalOrder() {
+        return order().clone();
+    }
+
+    public long getVersion() {
+        prepare();
+        return version;
+    }
+
+    public boolean isAcyclic() {
+        prepare();
+        return order.length == graph.getVertices();
+    }
+
+    int[] order() {
+        prepare();
+        return order;
+    }
+
+    public DAGShortestPath.PathResult shortestPaths(int source) {
+        return sweep(source, false);
+    }
+
+    public DAGShortestPath.PathResult longestPaths(int source) {
+        return sweep(source, true);
+    }
+
+    public DAGShortestPath.PathResult shortestPaths(int[] sources) {
+        return sweep(sources, false);
+    }
+
+    public DAGShortestPath.PathResult longestPaths(int[] sources) {
+        return sweep(sources, true);
+    }
+
+    public BatchResult shortestPathsBatch(int[] sources) {
+        return batchSweep(sources, false);
+    }
+
+    public BatchResult longestPathsBatch(int[] sources) {
+        return batchSweep(sources, true);
+    }
+
+    private void prepare() {
+        long current = graph.getModificationCount();
+        if (order != null && version == current) {
+            return;
+        }
+
+        order = new TopologicalSort(graph, new BasicMetrics()).sortToArray();
+        position = new int[graph.getVertices()];
+        for (int i = 0; i < order.length; i++) {
+            position[order[i]] = i;
+        }
+        version = current;
+    }
+
+    private DAGShortestPath.PathResult sweep(int source, boolean longest) {
+        return sweep(new int[]{source}, longest);
+    }
+
+    private DAGShortestPath.PathResult sweep(int[] sources, boolean longest) {
+        int n = graph.getVertices();
+        checkSources(sources, n);
+
+        double unreached = longest ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        double[] dist = new double[n];
+        int[] pred = new int[n];
+        Arrays.fill(dist, unreached);
+        Arrays.fill(pred, -1);
+        for (int source : sources) {
+            dist[source] = 0;
+        }
+
+        metrics.startTiming();
+        prepare();
+
+        if (order.length != n) {
+            metrics.stopTiming();
+            return new DAGShortestPath.PathResult(dist, pred, metrics, false);
+        }
+
+        long relaxations = 0;
+        for (int i = firstPosition(sources); i < n; i++) {
+            int u = order[i];
+            double du = dist[u];
+            if (du == unreached) {
+                continue;
+            }
+
+            int degree = graph.outDegree(u);
+            relaxations += degree;
+            for (int j = 0; j < degree; j++) {
+                int v = graph.edgeTarget(u, j);
+                double candidate = du + graph.edgeWeight(u, j);
+                if (longest ? candidate > dist[v] : candidate < dist[v]) {
+                    dist[v] = candidate;
+                    pred[v] = u;
+                }
+            }
+        }
+
+        metrics.stopTiming();
+        metrics.addCounter("relaxations", relaxations);
+
+        return new DAGShortestPath.PathResult(dist, pred, metrics, true);
+    }
+
+    private BatchResult batchSweep(int[] sources, boolean longest) {
+        int n = graph.getVertices();
+        int k = sources.length;
+        checkSources(sources, n);
+        if ((long) n * k > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many sources for one batch: " + k);
+        }
+
+        double unreached = longest ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        double[] dist = new double[n * k];
+        boolean[] reached = new boolean[n];
+        Arrays.fill(dist, unreached);
+        for (int j = 0; j < k; j++) {
+            dist[sources[j] * k + j] = 0;
+            reached[sources[j]] = true;
+        }
+
+        metrics.startTiming();
+        prepare();
+
+        if (order.length != n) {
+            metrics.stopTiming();
+            return new BatchResult(dist, sources.clone(), metrics, false);
+        }
+
+        long relaxations = 0;
+        for (int i = firstPosition(sources); i < n; i++) {
+            int u = order[i];
+            if (!reached[u]) {
+                continue;
+            }
+
+            int base = u * k;
+            int degree = graph.outDegree(u);
+            relaxations += (long) degree * k;
+
+            for (int e = 0; e < degree; e++) {
+                int v = graph.edgeTarget(u, e);
+                int target = v * k;
+                reached[v] = true;
+                double weight = graph.edgeWeight(u, e);
+                if (longest) {
+                    for (int j = 0; j < k; j++) {
+                        dist[target + j] = Math.max(dist[target + j], dist[base + j] + weight);
+                    }
+                } else {
+                    for (int j = 0; j < k; j++) {
+                        dist[target + j] = Math.min(dist[target + j], dist[base + j] + weight);
+                    }
+                }
+            }
+        }
+
+        metrics.stopTiming();
+        metrics.addCounter("relaxations", relaxations);
+
+        return new BatchResult(dist, sources.clone(), metrics, true);
+    }
+
+    private static void checkSources(int[] sources, int n) {
+        if (sources.length == 0) {
+            throw new IllegalArgumentException("At least one source is required");
+        }
+        for (int source : sources) {
+            if (source < 0 || source >= n) {
+                throw new IllegalArgumentException("Invalid vertex index");
+            }
+        }
+    }
+
+    private int firstPosition(int[] sources) {
+        int first = Integer.MAX_VALUE;
+        for (int source : sources) {
+            first = Math.min(first, position[source]);
+        }
+        return first;
+    }
+
+    public static class BatchResult {
+        public final double[] dist;
+        public final int[] sources;
+        public final Metrics metrics;
+        public final boolean isValid;
+
+        public BatchResult(double[] dist, int[] sources, Metrics metrics, boolean isValid) {
+            this.dist = dist;
+            this.sources = sources;
+            this.metrics = metrics;
+            this.isValid = isValid;
+        }
+
+        public int getSourceCount() {
+            return sources.length;
+        }
+
+        public double getDistance(int sourceIndex, int target) {
+            return dist[target * sources.length + sourceIndex];
+        }
+
+        public double[] getDistances(int sourceIndex) {
+            int k = sources.length;
+            double[] row = new double[dist.length / k];
+            for (int v = 0; v < row.length; v++) {
+                row[v] = dist[v * k + sourceIndex];
+            }
+            return row;
+        }
+    }
+}
@@ -1,114 +1,34 @@
 package graph.dagsp;
 
-import graph.common.BasicMetrics;
-import graph.common.Graph;
+import graph.common.GraphView;
 import graph.common.Metrics;
-import graph.topo.TopologicalSort;
 import java.util.*;
 
 public class DAGShortestPath {
-    private final Graph graph;
-    private final Metrics metrics;
+    private final GraphView graph;
+    private final DAGPathQuery query;
 
-    public DAGShortestPath(Graph graph, Metrics metrics) {
+    public DAGShortestPath(GraphView graph, Metrics metrics) {
         this.graph = graph;
-        this.metrics = metrics;
+        this.query = new DAGPathQuery(graph, metrics);
     }
 
     public PathResult shortestPaths(int source) {
-        int n = graph.getVertices();
-        double[] dist = new double[n];
-        int[] pred = new int[n];
-
-        Arrays.fill(dist, Double.POSITIVE_INFINITY);
-        Arrays.fill(pred, -1);
-        dist[source] = 0;
-
-        metrics.startTiming();
-
-        TopologicalSort topo = new TopologicalSort(graph, new BasicMetrics());
-        List<Integer> order = topo.sort();
-
-        if (order.size() != n) {
-            metrics.stopTiming();
-            return new PathResult(dist, pred, metrics, false);
-        }
-
-        for (int u : order) {
-            if (dist[u] != Double.POSITIVE_INFINITY) {
-                for (Graph.Edge edge : graph.getAdjacent(u)) {
-                    int v = edge.to;
-                    metrics.incrementCounter("relaxations");
-
-                    if (dist[u] + edge.weight < dist[v]) {
-                        dist[v] = dist[u] + edge.weight;
-                        pred[v] = u;
-                    }
-                }
-            }
-        }
-
-        metrics.stopTiming();
-
-        return new PathResult(dist, pred, metrics, true);
+        return query.shortestPaths(source);
     }
 
     public PathResult longestPaths(int source) {
-        int n = graph.getVertices();
-        double[] dist = new double[n];
-        int[] pred = new int[n];
-
-        Arrays.fill(dist, Double.NEGATIVE_INFINITY);
-        Arrays.fill(pred, -1);
-        dist[source] = 0;
-
-        metrics.startTiming();
-
-        TopologicalSort topo = new TopologicalSort(graph, new BasicMetrics());
-        List<Integer> order = topo.sort();
-
-        if (order.size() != n) {
-            metrics.stopTiming();
-            return new PathResult(dist, pred, metrics, false);
-        }
-
-        for (int u : order) {
-            if (dist[u] != Double.NEGATIVE_INFINITY) {
-                for (Graph.Edge edge : graph.getAdjacent(u)) {
-                    int v = edge.to;
-                    metrics.incrementCounter("relaxations");
-
-                    if (dist[u] + edge.weight > dist[v]) {
-                        dist[v] = dist[u] + edge.weight;
-                        pred[v] = u;
-                    }
-                }
-            }
-        }
-
-        metrics.stopTiming();
+        return query.longestPaths(source);
+    }
 
-        return new PathResult(dist, pred, metrics, true);
+    public DAGPathQuery getQuery() {
+        return query;
     }
 
     public CriticalPathResult findCriticalPath() {
         int n = graph.getVertices();
 
-        int[] inDegree = new int[n];
-        for (int u = 0; u < n; u++) {
-            for (Graph.Edge edge : graph.getAdjacent(u)) {
-                inDegree[edge.to]++;
-            }
-        }
-
-        int source = -1;
-        for (int i = 0; i < n; i++) {
-            if (inDegree[i] == 0) {
-                source = i;
-                break;
-            }
-        }
-
+        int source = graph.getDegreeIndex().firstSource();
         if (source == -1) {
             source = 0;
         }
@@ -178,7 +98,22 @@ public class DAGShortestPath {
             return path;
         }
 
-        public void printResults(Graph graph, int source) {
+        public List<Integer> getPathTo(int target) {
+            List<Integer> path = new ArrayList<>();
+
+            if (pred[target] == -1 && dist[target] != 0) {
+                return path;
+            }
+
+            for (int current = target; current != -1; current = pred[current]) {
+                path.add(current);
+            }
+
+            Collections.reverse(path);
+            return path;
+        }
+
+        public void printResults(GraphView graph, int source) {
             System.out.println("Shortest Paths from " + graph.getTaskName(source));
 
             if (!isValid) {
@@ -215,7 +150,7 @@ public class DAGShortestPath {
             this.metrics = metrics;
         }
 
-        public void printResults(Graph graph) {
+        public void printResults(GraphView graph) {
             System.out.println("Critical Path (Longest Path)");
             System.out.println("Length: " + length);
             System.out.print("Path: ");
@@ -0,0 +1,223 @@
+package graph.dagsp;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public abstract class DistanceMatrix implements AutoCloseable {
+    protected final int size;
+    protected final Precision precision;
+
+    protected DistanceMatrix(int size, Precision precision) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Invalid matrix size: " + size);
+        }
+        this.size = size;
+        this.precision = precision;
+    }
+
+    public static DistanceMatrix inMemory(int size, Precision precision) {
+        if (precision == Precision.FLOAT) {
+            return new FloatRows(size);
+        }
+        return new DoubleRows(size);
+    }
+
+    public static DistanceMatrix mapped(Path path, int size, Precision precision) throws IOException {
+        long rowBytes = Math.max(1L, (long) size * precision.bytes);
+        return new MappedRows(path, size, precision, (int) Math.max(1L, Math.min(size, Integer.MAX_VALUE / rowBytes)));
+    }
+
+    public static DistanceMatrix mapped(Path path, int size, Precision precision, int rowsPerSegment) throws IOException {
+        long rowBytes = Math.max(1L, (long) size * precision.bytes);
+        if (rowsPerSegment <= 0 || rowsPerSegment > Integer.MAX_VALUE / rowBytes) {
+            throw new IllegalArgumentException("Invalid rows per segment: " + rowsPerSegment);
+        }
+        return new MappedRows(path, size, precision, rowsPerSegment);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Precision getPrecision() {
+        return precision;
+    }
+
+    public long byteSize() {
+        return (long) size * size * precision.bytes;
+    }
+
+    public abstract double get(int from, int to);
+
+    public abstract void setRow(int from, double[] row);
+
+    public double[] getRow(int from) {
+        checkRow(from);
+        double[] row = new double[size];
+        for (int to = 0; to < size; to++) {
+            row[to] = get(from, to);
+        }
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+    }
+
+    protected void checkRow(int from) {
+        if (from < 0 || from >= size) {
+            throw new IllegalArgumentException("Invalid vertex index");
+        }
+    }
+
+    protected void checkCell(int from, int to) {
+        if (from < 0 || from >= size || to < 0 || to >= size) {
+            throw new IllegalArgumentException("Invalid vertex index");
+        }
+    }
+
+    private static <T> T computed(T row, int from) {
+        if (row == null) {
+            throw new IllegalStateException("Row " + from + " has not been computed");
+        }
+        return row;
+    }
+
+    public enum Precision {
+        DOUBLE(8), FLOAT(4);
+
+        final int bytes;
+
+        Precision(int bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    private static final class DoubleRows extends DistanceMatrix {
+        private final double[][] rows;
+
+        DoubleRows(int size) {
+            super(size, Precision.DOUBLE);
+            this.rows = new double[size][];
+        }
+
+        @Override
+        public double get(int from, int to) {
+            checkCell(from, to);
+            return computed(rows[from], from)[to];
+        }
+
+        @Override
+        public void setRow(int from, double[] row) {
+            checkRow(from);
+            rows[from] = row.clone();
+        }
+
+        @Override
+        public double[] getRow(int from) {
+            checkRow(from);
+            return computed(rows[from], from).clone();
+        }
+    }
+
+    private static final class FloatRows extends DistanceMatrix {
+        private final float[][] rows;
+
+        FloatRows(int size) {
+            super(size, Precision.FLOAT);
+            this.rows = new float[size][];
+        }
+
+        @Override
+        public double get(int from, int to) {
+            checkCell(from, to);
+            return computed(rows[from], from)[to];
+        }
+
+        @Override
+        public void setRow(int from, double[] row) {
+            checkRow(from);
+            float[] stored = new float[size];
+            for (int to = 0; to < size; to++) {
+                stored[to] = (float) row[to];
+            }
+            rows[from] = stored;
+        }
+    }
+
+    private static final class MappedRows extends DistanceMatrix {
+        private final FileChannel channel;
+        private final MappedByteBuffer[] segments;
+        private final DoubleBuffer[] doubleViews;
+        private final FloatBuffer[] floatViews;
+        private final int rowsPerSegment;
+
+        MappedRows(Path path, int size, Precision precision, int rowsPerSegment) throws IOException {
+            super(size, precision);
+            long rowBytes = Math.max(1L, (long) size * precision.bytes);
+            this.rowsPerSegment = rowsPerSegment;
+            int segmentCount = size == 0 ? 0 : (size + rowsPerSegment - 1) / rowsPerSegment;
+
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.segments = new MappedByteBuffer[segmentCount];
+            this.doubleViews = new DoubleBuffer[segmentCount];
+            this.floatViews = new FloatBuffer[segmentCount];
+
+            for (int s = 0; s < segmentCount; s++) {
+                int rows = Math.min(rowsPerSegment, size - s * rowsPerSegment);
+                segments[s] = channel.map(FileChannel.MapMode.READ_WRITE,
+                        s * rowsPerSegment * rowBytes, rows * rowBytes);
+                segments[s].order(ByteOrder.nativeOrder());
+                if (precision == Precision.FLOAT) {
+                    floatViews[s] = segments[s].asFloatBuffer();
+                } else {
+                    doubleViews[s] = segments[s].asDoubleBuffer();
+                }
+            }
+        }
+
+        @Override
+        public double get(int from, int to) {
+            checkCell(from, to);
+            int segment = from / rowsPerSegment;
+            int index = (from - segment * rowsPerSegment) * size + to;
+            if (precision == Precision.FLOAT) {
+                return floatViews[segment].get(index);
+            }
+            return doubleViews[segment].get(index);
+        }
+
+        @Override
+        public void setRow(int from, double[] row) {
+            checkRow(from);
+            int segment = from / rowsPerSegment;
+            int base = (from - segment * rowsPerSegment) * size;
+            if (precision == Precision.FLOAT) {
+                FloatBuffer view = floatViews[segment];
+                for (int to = 0; to < size; to++) {
+                    view.put(base + to, (float) row[to]);
+                }
+            } else {
+                DoubleBuffer view = doubleViews[segment];
+                for (int to = 0; to < size; to++) {
+                    view.put(base + to, row[to]);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+            channel.close();
+        }
+    }
+}
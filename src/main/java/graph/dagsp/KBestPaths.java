@@ -0,0 +1,474 @@
+package graph.dagsp;
+
+import graph.common.GraphView;
+import graph.common.Metrics;
+
+import java.util.Arrays;
+
+public class KBestPaths {
+    private final GraphView graph;
+    private final Metrics metrics;
+    private final DAGPathQuery query;
+
+    private int superSource;
+    private int[] sources;
+    private double[] toSink;
+    private int[] nextEdge;
+    private int[] sideStart;
+    private int[] sideHead;
+    private double[] sideDelta;
+
+    private int[] nodeSide;
+    private int[] nodeLeft;
+    private int[] nodeRight;
+    private int[] nodeRank;
+    private int nodeCount;
+
+    private int[] itemSide;
+    private int[] itemNode;
+    private int[] itemPrefix;
+    private double[] itemPenalty;
+    private int itemCount;
+
+    private int[] pathVertices;
+    private int pathSize;
+
+    public KBestPaths(GraphView graph, Metrics metrics) {
+        this(graph, metrics, new DAGPathQuery(graph, metrics));
+    }
+
+    public KBestPaths(GraphView graph, Metrics metrics, DAGPathQuery query) {
+        this.graph = graph;
+        this.metrics = metrics;
+        this.query = query;
+    }
+
+    public KPathsResult longestPaths(int k) {
+        return enumerate(k, true);
+    }
+
+    public KPathsResult shortestPaths(int k) {
+        return enumerate(k, false);
+    }
+
+    private KPathsResult enumerate(int k, boolean longest) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("Path count must be positive: " + k);
+        }
+        int n = graph.getVertices();
+
+        metrics.startTiming();
+
+        if (!query.isAcyclic()) {
+            metrics.stopTiming();
+            return new KPathsResult(new int[0], new int[1], new double[0], metrics, false);
+        }
+        if (n == 0) {
+            metrics.stopTiming();
+            return new KPathsResult(new int[0], new int[1], new double[0], metrics, true);
+        }
+
+        int[] order = query.order();
+        sources = graph.getDegreeIndex().getSources();
+        computeDistancesToSink(order, longest);
+        collectSidetracks(order, longest);
+        int[] heaps = buildHeaps(order);
+
+        itemCount = 0;
+        itemSide = new int[16];
+        itemNode = new int[16];
+        itemPrefix = new int[16];
+        itemPenalty = new double[16];
+
+        int[] queue = new int[16];
+        int queueSize = 0;
+        if (heaps[superSource] != -1) {
+            int root = heaps[superSource];
+            queue = push(queue, queueSize++, newItem(nodeSide[root], root, -1, sideDelta[nodeSide[root]]));
+        }
+
+        double best = toSink[superSource];
+        pathVertices = new int[16];
+        pathSize = 0;
+        int[] pathOffsets = new int[k + 1];
+        double[] lengths = new double[k];
+        int found = 0;
+        int current = -1;
+        long pushes = queueSize;
+
+        while (true) {
+            double penalty = current == -1 ? 0 : itemPenalty[current];
+            lengths[found] = longest ? best - penalty : best + penalty;
+            appendPath(current);
+            pathOffsets[found + 1] = pathSize;
+            found++;
+
+            if (found == k || queueSize == 0) {
+                break;
+            }
+
+            current = queue[0];
+            int last = queue[--queueSize];
+            if (queueSize > 0) {
+                siftDown(queue, queueSize, last);
+            }
+
+            int side = itemSide[current];
+            int node = itemNode[current];
+            int prefix = itemPrefix[current];
+            double base = itemPenalty[current] - sideDelta[side];
+
+            if (node != -1 && nodeLeft[node] != -1) {
+                int child = nodeLeft[node];
+                queue = push(queue, queueSize++, newItem(nodeSide[child], child, prefix, base + sideDelta[nodeSide[child]]));
+                pushes++;
+            }
+            if (node != -1 && nodeRight[node] != -1) {
+                int child = nodeRight[node];
+                queue = push(queue, queueSize++, newItem(nodeSide[child], child, prefix, base + sideDelta[nodeSide[child]]));
+                pushes++;
+            }
+
+            int tail = tailOf(side);
+            int offset = side - sideStart[tail];
+            for (int child = 2 * offset + 1; child <= 2 * offset + 2; child++) {
+                if (sideStart[tail] + child < sideStart[tail + 1]) {
+                    int next = sideStart[tail] + child;
+                    queue = push(queue, queueSize++, newItem(next, -1, prefix, base + sideDelta[next]));
+                    pushes++;
+                }
+            }
+
+            int extension = heaps[sideHead[side]];
+            if (extension != -1) {
+                int extSide = nodeSide[extension];
+                queue = push(queue, queueSize++, newItem(extSide, extension, current, itemPenalty[current] + sideDelta[extSide]));
+                pushes++;
+            }
+        }
+
+        metrics.stopTiming();
+        metrics.addCounter("sidetracks", sideHead.length);
+        metrics.addCounter("heap_nodes", nodeCount);
+        metrics.addCounter("queue_pushes", pushes);
+
+        return new KPathsResult(Arrays.copyOf(pathVertices, pathSize), Arrays.copyOf(pathOffsets, found + 1),
+                Arrays.copyOf(lengths, found), metrics, true);
+    }
+
+    private void computeDistancesToSink(int[] order, boolean longest) {
+        int n = order.length;
+        superSource = n;
+        toSink = new double[n + 1];
+        nextEdge = new int[n + 1];
+
+        for (int i = n - 1; i >= 0; i--) {
+            int u = order[i];
+            int degree = graph.outDegree(u);
+            double best = longest ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+            int bestEdge = -1;
+            for (int j = 0; j < degree; j++) {
+                double candidate = graph.edgeWeight(u, j) + toSink[graph.edgeTarget(u, j)];
+                if (longest ? candidate > best : candidate < best) {
+                    best = candidate;
+                    bestEdge = j;
+                }
+            }
+            toSink[u] = degree == 0 ? 0 : best;
+            nextEdge[u] = bestEdge;
+        }
+
+        double best = longest ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        int bestSource = -1;
+        for (int i = 0; i < sources.length; i++) {
+            double candidate = toSink[sources[i]];
+            if (longest ? candidate > best : candidate < best) {
+                best = candidate;
+                bestSource = i;
+            }
+        }
+        toSink[superSource] = best;
+        nextEdge[superSource] = bestSource;
+    }
+
+    private void collectSidetracks(int[] order, boolean longest) {
+        int n = order.length;
+        sideStart = new int[n + 2];
+        for (int u = 0; u < n; u++) {
+            sideStart[u + 1] = sideStart[u] + Math.max(0, graph.outDegree(u) - 1);
+        }
+        sideStart[n + 1] = sideStart[n] + sources.length - 1;
+
+        sideHead = new int[sideStart[n + 1]];
+        sideDelta = new double[sideStart[n + 1]];
+
+        for (int u = 0; u < n; u++) {
+            int degree = graph.outDegree(u);
+            int next = sideStart[u];
+            for (int j = 0; j < degree; j++) {
+                if (j == nextEdge[u]) {
+                    continue;
+                }
+                int v = graph.edgeTarget(u, j);
+                double path = graph.edgeWeight(u, j) + toSink[v];
+                sideHead[next] = v;
+                sideDelta[next] = longest ? toSink[u] - path : path - toSink[u];
+                next++;
+            }
+            heapify(sideStart[u], sideStart[u + 1]);
+        }
+
+        int next = sideStart[n];
+        for (int i = 0; i < sources.length; i++) {
+            if (i == nextEdge[superSource]) {
+                continue;
+            }
+            sideHead[next] = sources[i];
+            sideDelta[next] = longest ? toSink[superSource] - toSink[sources[i]] : toSink[sources[i]] - toSink[superSource];
+            next++;
+        }
+        heapify(sideStart[n], sideStart[n + 1]);
+    }
+
+    private void heapify(int from, int to) {
+        for (int i = (to - from) / 2 - 1; i >= 0; i--) {
+            int position = i;
+            int half = (to - from) >>> 1;
+            while (position < half) {
+                int child = 2 * position + 1;
+                if (child + 1 < to - from && sideDelta[from + child + 1] < sideDelta[from + child]) {
+                    child++;
+                }
+                if (sideDelta[from + child] >= sideDelta[from + position]) {
+                    break;
+                }
+                swapSidetracks(from + position, from + child);
+                position = child;
+            }
+        }
+    }
+
+    private void swapSidetracks(int a, int b) {
+        int head = sideHead[a];
+        sideHead[a] = sideHead[b];
+        sideHead[b] = head;
+        double delta = sideDelta[a];
+        sideDelta[a] = sideDelta[b];
+        sideDelta[b] = delta;
+    }
+
+    private int[] buildHeaps(int[] order) {
+        int n = order.length;
+        int[] heaps = new int[n + 1];
+        int capacity = Math.max(16, 2 * n);
+        nodeSide = new int[capacity];
+        nodeLeft = new int[capacity];
+        nodeRight = new int[capacity];
+        nodeRank = new int[capacity];
+        nodeCount = 0;
+
+        for (int i = n - 1; i >= 0; i--) {
+            int u = order[i];
+            int inherited = nextEdge[u] == -1 ? -1 : heaps[graph.edgeTarget(u, nextEdge[u])];
+            heaps[u] = sideStart[u] < sideStart[u + 1] ? insert(inherited, sideStart[u]) : inherited;
+        }
+
+        int inherited = heaps[sources[nextEdge[superSource]]];
+        heaps[superSource] = sideStart[n] < sideStart[n + 1] ? insert(inherited, sideStart[n]) : inherited;
+        return heaps;
+    }
+
+    private int insert(int heap, int side) {
+        return merge(newNode(side, -1, -1, 1), heap);
+    }
+
+    private int merge(int a, int b) {
+        if (a == -1) {
+            return b;
+        }
+        if (b == -1) {
+            return a;
+        }
+        if (sideDelta[nodeSide[b]] < sideDelta[nodeSide[a]]) {
+            int swap = a;
+            a = b;
+            b = swap;
+        }
+
+        int merged = newNode(nodeSide[a], nodeLeft[a], -1, 0);
+        int right = merge(nodeRight[a], b);
+        int left = nodeLeft[merged];
+        if (rank(left) < rank(right)) {
+            nodeLeft[merged] = right;
+            nodeRight[merged] = left;
+        } else {
+            nodeRight[merged] = right;
+        }
+        nodeRank[merged] = rank(nodeRight[merged]) + 1;
+        return merged;
+    }
+
+    private int rank(int node) {
+        return node == -1 ? 0 : nodeRank[node];
+    }
+
+    private int newNode(int side, int left, int right, int rank) {
+        if (nodeCount == nodeSide.length) {
+            int capacity = nodeCount * 2;
+            nodeSide = Arrays.copyOf(nodeSide, capacity);
+            nodeLeft = Arrays.copyOf(nodeLeft, capacity);
+            nodeRight = Arrays.copyOf(nodeRight, capacity);
+            nodeRank = Arrays.copyOf(nodeRank, capacity);
+        }
+        nodeSide[nodeCount] = side;
+        nodeLeft[nodeCount] = left;
+        nodeRight[nodeCount] = right;
+        nodeRank[nodeCount] = rank;
+        return nodeCount++;
+    }
+
+    private int newItem(int side, int node, int prefix, double penalty) {
+        if (itemCount == itemSide.length) {
+            int capacity = itemCount * 2;
+            itemSide = Arrays.copyOf(itemSide, capacity);
+            itemNode = Arrays.copyOf(itemNode, capacity);
+            itemPrefix = Arrays.copyOf(itemPrefix, capacity);
+            itemPenalty = Arrays.copyOf(itemPenalty, capacity);
+        }
+        itemSide[itemCount] = side;
+        itemNode[itemCount] = node;
+        itemPrefix[itemCount] = prefix;
+        itemPenalty[itemCount] = penalty;
+        return itemCount++;
+    }
+
+    private int tailOf(int side) {
+        int low = 0;
+        int high = sideStart.length - 2;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (sideStart[mid] <= side) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private void appendPath(int item) {
+        int depth = 0;
+        for (int i = item; i != -1; i = itemPrefix[i]) {
+            depth++;
+        }
+        int[] heads = new int[depth];
+        int[] tails = new int[depth];
+        for (int i = item; i != -1; i = itemPrefix[i]) {
+            depth--;
+            heads[depth] = sideHead[itemSide[i]];
+            tails[depth] = tailOf(itemSide[i]);
+        }
+
+        int v = superSource;
+        int s = 0;
+        while (true) {
+            if (s < tails.length && tails[s] == v) {
+                v = heads[s++];
+            } else if (v == superSource) {
+                v = sources[nextEdge[superSource]];
+            } else if (nextEdge[v] == -1) {
+                break;
+            } else {
+                v = graph.edgeTarget(v, nextEdge[v]);
+            }
+
+            if (pathSize == pathVertices.length) {
+                pathVertices = Arrays.copyOf(pathVertices, pathSize * 2);
+            }
+            pathVertices[pathSize++] = v;
+        }
+    }
+
+    private int[] push(int[] queue, int position, int item) {
+        if (position == queue.length) {
+            queue = Arrays.copyOf(queue, position * 2);
+        }
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (itemPenalty[queue[parent]] <= itemPenalty[item]) {
+                break;
+            }
+            queue[position] = queue[parent];
+            position = parent;
+        }
+        queue[position] = item;
+        return queue;
+    }
+
+    private void siftDown(int[] queue, int size, int item) {
+        int position = 0;
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && itemPenalty[queue[right]] < itemPenalty[queue[child]]) {
+                child = right;
+            }
+            if (itemPenalty[queue[child]] >= itemPenalty[item]) {
+                break;
+            }
+            queue[position] = queue[child];
+            position = child;
+        }
+        queue[position] = item;
+    }
+
+    public static class KPathsResult {
+        public final int[] vertices;
+        public final int[] pathOffsets;
+        public final double[] lengths;
+        public final Metrics metrics;
+        public final boolean isValid;
+
+        public KPathsResult(int[] vertices, int[] pathOffsets, double[] lengths, Metrics metrics, boolean isValid) {
+            this.vertices = vertices;
+            this.pathOffsets = pathOffsets;
+            this.lengths = lengths;
+            this.metrics = metrics;
+            this.isValid = isValid;
+        }
+
+        public int getPathCount() {
+            return lengths.length;
+        }
+
+        public int[] getPath(int rank) {
+            return Arrays.copyOfRange(vertices, pathOffsets[rank], pathOffsets[rank + 1]);
+        }
+
+        public double getLength(int rank) {
+            return lengths[rank];
+        }
+
+        public void printResults(GraphView graph) {
+            System.out.println("K Best Paths");
+
+            if (!isValid) {
+                System.out.println("ERROR: Graph contains a cycle!");
+                return;
+            }
+
+            for (int rank = 0; rank < getPathCount(); rank++) {
+                System.out.print("#" + (rank + 1) + " (" + lengths[rank] + "): ");
+                for (int i = pathOffsets[rank]; i < pathOffsets[rank + 1]; i++) {
+                    System.out.print(graph.getTaskName(vertices[i]));
+                    if (i < pathOffsets[rank + 1] - 1) System.out.print(" -> ");
+                }
+                System.out.println();
+            }
+
+            System.out.println("\nMetrics");
+            System.out.println(metrics.getSummary());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package graph.scc;
+
+import graph.common.Graph;
+import graph.common.GraphView;
+import graph.common.LongIntHashMap;
+import graph.common.Metrics;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class CondensationBuilder {
+    private final GraphView graph;
+    private final Metrics metrics;
+
+    public CondensationBuilder(GraphView graph, Metrics metrics) {
+        this.graph = graph;
+        this.metrics = metrics;
+    }
+
+    public Graph build(SCCPartition partition, WeightAggregation aggregation) {
+        int count = partition.getComponentCount();
+        Graph condensation = new Graph(count);
+        for (int c = 0; c < count; c++) {
+            nameComponent(condensation, c, partition.getComponentSize(c), partition.getMember(c, 0));
+        }
+        addEdges(condensation, partition.componentOf, aggregation);
+        return condensation;
+    }
+
+    public Graph build(List<List<Integer>> sccs, WeightAggregation aggregation) {
+        int count = sccs.size();
+        Graph condensation = new Graph(count);
+        int[] componentOf = new int[graph.getVertices()];
+        for (int c = 0; c < count; c++) {
+            List<Integer> scc = sccs.get(c);
+            for (int v : scc) {
+                componentOf[v] = c;
+            }
+            nameComponent(condensation, c, scc.size(), scc.get(0));
+        }
+        addEdges(condensation, componentOf, aggregation);
+        return condensation;
+    }
+
+    private void nameComponent(Graph condensation, int c, int size, int firstMember) {
+        if (size == 1) {
+            condensation.setTaskName(c, graph.getTaskName(firstMember));
+        } else {
+            condensation.setTaskName(c, "SCC_" + c + "_" + size + "_tasks");
+        }
+    }
+
+    private void addEdges(Graph condensation, int[] componentOf, WeightAggregation aggregation) {
+        LongIntHashMap edgeIndex = new LongIntHashMap();
+        int[] from = new int[16];
+        int[] to = new int[16];
+        double[] weight = new double[16];
+        int count = 0;
+        long parallel = 0;
+
+        for (int u = 0; u < graph.getVertices(); u++) {
+            int sccU = componentOf[u];
+            int degree = graph.outDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int sccV = componentOf[graph.edgeTarget(u, i)];
+                if (sccU == sccV) {
+                    continue;
+                }
+
+                double w = graph.edgeWeight(u, i);
+                long key = ((long) sccU << 32) | sccV;
+                int existing = edgeIndex.putIfAbsent(key, count);
+                if (existing >= 0) {
+                    weight[existing] = aggregation.combine(weight[existing], w);
+                    parallel++;
+                    continue;
+                }
+
+                if (count == from.length) {
+                    from = Arrays.copyOf(from, count * 2);
+                    to = Arrays.copyOf(to, count * 2);
+                    weight = Arrays.copyOf(weight, count * 2);
+                }
+                from[count] = sccU;
+                to[count] = sccV;
+                weight[count] = w;
+                count++;
+            }
+        }
+
+        for (int e = 0; e < count; e++) {
+            condensation.addEdge(from[e], to[e], weight[e]);
+        }
+        metrics.addCounter("condensation_edges", count);
+        metrics.addCounter("parallel_edges", parallel);
+    }
+
+    public enum WeightAggregation {
+        FIRST, MIN, MAX, SUM;
+
+        double combine(double current, double next) {
+            switch (this) {
+                case MIN:
+                    return Math.min(current, next);
+                case MAX:
+                    return Math.max(current, next);
+                case SUM:
+                    return current + next;
+                default:
+                    return current;
+            }
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package graph.scc;
+
+import graph.common.Graph;
+import graph.common.GraphView;
+import graph.common.LongHashSet;
+import graph.common.Metrics;
+
+import java.util.Arrays;
+
+public class IncrementalSCC {
+    private final GraphView graph;
+    private final Metrics metrics;
+    private final int n;
+
+    private final int[] parent;
+    private final int[] size;
+    private final int[] ord;
+    private final int[] slot;
+
+    private final int[][] out;
+    private final double[][] outWeight;
+    private final int[] outSize;
+    private final int[][] in;
+    private final double[][] inWeight;
+    private final int[] inSize;
+    private final LongHashSet edges;
+
+    private final int[] forwardMark;
+    private final int[] backwardMark;
+    private final int[] stack;
+    private final int[] forward;
+    private final int[] backward;
+    private int epoch;
+    private int componentCount;
+
+    public IncrementalSCC(GraphView graph, Metrics metrics) {
+        this.graph = graph;
+        this.metrics = metrics;
+        this.n = graph.getVertices();
+
+        parent = new int[n];
+        size = new int[n];
+        ord = new int[n];
+        slot = new int[n];
+        out = new int[n][];
+        outWeight = new double[n][];
+        outSize = new int[n];
+        in = new int[n][];
+        inWeight = new double[n][];
+        inSize = new int[n];
+        edges = new LongHashSet(graph.countEdges());
+        forwardMark = new int[n];
+        backwardMark = new int[n];
+        stack = new int[n];
+        forward = new int[n];
+        backward = new int[n];
+
+        SCCPartition partition = new IterativeTarjanSCC(graph, metrics).findComponents();
+        componentCount = partition.getComponentCount();
+        Arrays.fill(slot, -1);
+
+        for (int c = 0; c < componentCount; c++) {
+            int rep = partition.getMember(c, 0);
+            int position = componentCount - 1 - c;
+            ord[rep] = position;
+            slot[position] = rep;
+            size[rep] = partition.getComponentSize(c);
+            out[rep] = new int[4];
+            outWeight[rep] = new double[4];
+            in[rep] = new int[4];
+            inWeight[rep] = new double[4];
+            for (int i = 0; i < size[rep]; i++) {
+                parent[partition.getMember(c, i)] = rep;
+            }
+        }
+
+        for (int u = 0; u < n; u++) {
+            int degree = graph.outDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int cu = parent[u];
+                int cv = parent[graph.edgeTarget(u, i)];
+                if (cu != cv) {
+                    connect(cu, cv, graph.edgeWeight(u, i));
+                }
+            }
+        }
+    }
+
+    public boolean addEdge(int u, int v) {
+        return addEdge(u, v, 1.0);
+    }
+
+    public boolean addEdge(int u, int v, double weight) {
+        if (u < 0 || u >= n || v < 0 || v >= n) {
+            throw new IllegalArgumentException("Invalid vertex index");
+        }
+
+        int cu = find(u);
+        int cv = find(v);
+        if (cu == cv || edges.contains(edgeKey(cu, cv))) {
+            return false;
+        }
+        if (ord[cu] < ord[cv]) {
+            connect(cu, cv, weight);
+            return false;
+        }
+
+        nextEpoch();
+        int forwardCount = searchForward(cv, ord[cu]);
+        int backwardCount = searchBackward(cu, ord[cv]);
+        boolean cycle = forwardMark[cu] == epoch;
+        metrics.addCounter("affected_components", forwardCount + backwardCount);
+
+        reorder(forwardCount, backwardCount);
+        if (!cycle) {
+            connect(cu, cv, weight);
+        }
+        return cycle;
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    public int getRepresentative(int v) {
+        return find(v);
+    }
+
+    public boolean sameComponent(int u, int v) {
+        return find(u) == find(v);
+    }
+
+    public int getComponentSize(int v) {
+        return size[find(v)];
+    }
+
+    public int[] getComponentOrder() {
+        int[] order = new int[componentCount];
+        int count = 0;
+        for (int position = 0; position < n; position++) {
+            if (slot[position] >= 0) {
+                order[count++] = slot[position];
+            }
+        }
+        return order;
+    }
+
+    public SCCPartition toPartition() {
+        int[] order = getComponentOrder();
+        int[] componentId = new int[n];
+        int[] offsets = new int[componentCount + 1];
+        for (int i = 0; i < componentCount; i++) {
+            int c = componentCount - 1 - i;
+            componentId[order[i]] = c;
+            offsets[c + 1] = size[order[i]];
+        }
+        for (int c = 0; c < componentCount; c++) {
+            offsets[c + 1] += offsets[c];
+        }
+
+        int[] componentOf = new int[n];
+        int[] vertices = new int[n];
+        int[] fill = Arrays.copyOf(offsets, componentCount);
+        for (int v = 0; v < n; v++) {
+            int c = componentId[find(v)];
+            componentOf[v] = c;
+            vertices[fill[c]++] = v;
+        }
+        return new SCCPartition(componentOf, offsets, vertices);
+    }
+
+    public Graph toCondensationGraph() {
+        SCCPartition partition = toPartition();
+        int count = partition.getComponentCount();
+        Graph condensation = new Graph(count);
+
+        for (int c = 0; c < count; c++) {
+            if (partition.getComponentSize(c) == 1) {
+                condensation.setTaskName(c, graph.getTaskName(partition.getMember(c, 0)));
+            } else {
+                condensation.setTaskName(c, "SCC_" + c + "_" + partition.getComponentSize(c) + "_tasks");
+            }
+        }
+
+        for (int c = 0; c < count; c++) {
+            int rep = find(partition.getMember(c, 0));
+            for (int i = 0; i < outSize[rep]; i++) {
+                int target = out[rep][i];
+                if (parent[target] == target) {
+                    condensation.addEdge(c, partition.componentOf[target], outWeight[rep][i]);
+                }
+            }
+        }
+        return condensation;
+    }
+
+    private int find(int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    private void nextEpoch() {
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(forwardMark, 0);
+            Arrays.fill(backwardMark, 0);
+            epoch = 1;
+        }
+    }
+
+    private int searchForward(int start, int upper) {
+        int count = 0;
+        int top = 0;
+        forwardMark[start] = epoch;
+        forward[count++] = start;
+        stack[top++] = start;
+
+        while (top > 0) {
+            int x = stack[--top];
+            int i = 0;
+            while (i < outSize[x]) {
+                int t = out[x][i];
+                if (parent[t] != t) {
+                    int last = --outSize[x];
+                    out[x][i] = out[x][last];
+                    outWeight[x][i] = outWeight[x][last];
+                    continue;
+                }
+                if (forwardMark[t] != epoch && ord[t] <= upper) {
+                    forwardMark[t] = epoch;
+                    forward[count++] = t;
+                    stack[top++] = t;
+                }
+                i++;
+            }
+        }
+        return count;
+    }
+
+    private int searchBackward(int start, int lower) {
+        int count = 0;
+        int top = 0;
+        backwardMark[start] = epoch;
+        backward[count++] = start;
+        stack[top++] = start;
+
+        while (top > 0) {
+            int x = stack[--top];
+            int i = 0;
+            while (i < inSize[x]) {
+                int s = in[x][i];
+                if (parent[s] != s) {
+                    int last = --inSize[x];
+                    in[x][i] = in[x][last];
+                    inWeight[x][i] = inWeight[x][last];
+                    continue;
+                }
+                if (backwardMark[s] != epoch && ord[s] >= lower) {
+                    backwardMark[s] = epoch;
+                    backward[count++] = s;
+                    stack[top++] = s;
+                }
+                i++;
+            }
+        }
+        return count;
+    }
+
+    private void reorder(int forwardCount, int backwardCount) {
+        int[] positions = new int[forwardCount + backwardCount];
+        long[] before = new long[backwardCount];
+        long[] after = new long[forwardCount];
+        int[] members = new int[Math.min(forwardCount, backwardCount)];
+        int positionCount = 0;
+        int beforeCount = 0;
+        int afterCount = 0;
+        int memberCount = 0;
+
+        for (int i = 0; i < backwardCount; i++) {
+            int c = backward[i];
+            positions[positionCount++] = ord[c];
+            if (forwardMark[c] == epoch) {
+                members[memberCount++] = c;
+            } else {
+                before[beforeCount++] = packOrder(c);
+            }
+        }
+        for (int i = 0; i < forwardCount; i++) {
+            int c = forward[i];
+            if (backwardMark[c] != epoch) {
+                positions[positionCount++] = ord[c];
+                after[afterCount++] = packOrder(c);
+            }
+        }
+
+        Arrays.sort(positions, 0, positionCount);
+        Arrays.sort(before, 0, beforeCount);
+        Arrays.sort(after, 0, afterCount);
+
+        int p = 0;
+        for (int i = 0; i < beforeCount; i++) {
+            place((int) before[i], positions[p++]);
+        }
+        if (memberCount > 0) {
+            place(merge(members, memberCount), positions[p++]);
+        }
+        int firstAfter = positionCount - afterCount;
+        while (p < firstAfter) {
+            slot[positions[p++]] = -1;
+        }
+        for (int i = 0; i < afterCount; i++) {
+            place((int) after[i], positions[p++]);
+        }
+        metrics.addCounter("reordered_components", beforeCount + afterCount + memberCount);
+    }
+
+    private int merge(int[] members, int memberCount) {
+        int rep = members[0];
+        for (int i = 1; i < memberCount; i++) {
+            if (size[members[i]] > size[rep]) {
+                rep = members[i];
+            }
+        }
+
+        int outgoing = 0;
+        int incoming = 0;
+        for (int i = 0; i < memberCount; i++) {
+            if (members[i] != rep) {
+                outgoing += outSize[members[i]];
+                incoming += inSize[members[i]];
+            }
+        }
+        int[] targets = new int[outgoing];
+        double[] targetWeights = new double[outgoing];
+        int[] sources = new int[incoming];
+        double[] sourceWeights = new double[incoming];
+        outgoing = 0;
+        incoming = 0;
+
+        for (int i = 0; i < memberCount; i++) {
+            int m = members[i];
+            if (m == rep) {
+                continue;
+            }
+            for (int j = 0; j < outSize[m]; j++) {
+                int t = out[m][j];
+                if (parent[t] == t) {
+                    edges.remove(edgeKey(m, t));
+                    if (!isMember(t)) {
+                        targets[outgoing] = t;
+                        targetWeights[outgoing++] = outWeight[m][j];
+                    }
+                }
+            }
+            for (int j = 0; j < inSize[m]; j++) {
+                int s = in[m][j];
+                if (parent[s] == s) {
+                    edges.remove(edgeKey(s, m));
+                    if (!isMember(s)) {
+                        sources[incoming] = s;
+                        sourceWeights[incoming++] = inWeight[m][j];
+                    }
+                }
+            }
+        }
+
+        int j = 0;
+        while (j < outSize[rep]) {
+            int t = out[rep][j];
+            if (parent[t] != t || isMember(t)) {
+                edges.remove(edgeKey(rep, t));
+                int last = --outSize[rep];
+                out[rep][j] = out[rep][last];
+                outWeight[rep][j] = outWeight[rep][last];
+            } else {
+                j++;
+            }
+        }
+        j = 0;
+        while (j < inSize[rep]) {
+            int s = in[rep][j];
+            if (parent[s] != s || isMember(s)) {
+                edges.remove(edgeKey(s, rep));
+                int last = --inSize[rep];
+                in[rep][j] = in[rep][last];
+                inWeight[rep][j] = inWeight[rep][last];
+            } else {
+                j++;
+            }
+        }
+
+        for (int i = 0; i < memberCount; i++) {
+            int m = members[i];
+            if (m != rep) {
+                parent[m] = rep;
+                size[rep] += size[m];
+                out[m] = null;
+                outWeight[m] = null;
+                in[m] = null;
+                inWeight[m] = null;
+            }
+        }
+        componentCount -= memberCount - 1;
+
+        for (int i = 0; i < outgoing; i++) {
+            connect(rep, targets[i], targetWeights[i]);
+        }
+        for (int i = 0; i < incoming; i++) {
+            connect(sources[i], rep, sourceWeights[i]);
+        }
+        metrics.addCounter("merged_components", memberCount);
+        return rep;
+    }
+
+    private boolean isMember(int c) {
+        return forwardMark[c] == epoch && backwardMark[c] == epoch;
+    }
+
+    private void place(int c, int position) {
+        ord[c] = position;
+        slot[position] = c;
+    }
+
+    private long packOrder(int c) {
+        return ((long) ord[c] << 32) | c;
+    }
+
+    private void connect(int cu, int cv, double weight) {
+        if (!edges.add(edgeKey(cu, cv))) {
+            return;
+        }
+
+        if (outSize[cu] == out[cu].length) {
+            out[cu] = Arrays.copyOf(out[cu], outSize[cu] * 2);
+            outWeight[cu] = Arrays.copyOf(outWeight[cu], outSize[cu] * 2);
+        }
+        out[cu][outSize[cu]] = cv;
+        outWeight[cu][outSize[cu]++] = weight;
+
+        if (inSize[cv] == in[cv].length) {
+            in[cv] = Arrays.copyOf(in[cv], inSize[cv] * 2);
+            inWeight[cv] = Arrays.copyOf(inWeight[cv], inSize[cv] * 2);
+        }
+        in[cv][inSize[cv]] = cu;
+        inWeight[cv][inSize[cv]++] = weight;
+    }
+
+    private static long edgeKey(int u, int v) {
+        return ((long) u << 32) | (v & 0xFFFFFFFFL);
+    }
+}
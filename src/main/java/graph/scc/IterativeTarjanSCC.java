@@ -0,0 +1,94 @@
+package graph.scc;
+
+import graph.common.GraphView;
+import graph.common.Metrics;
+
+import java.util.Arrays;
+
+public class IterativeTarjanSCC implements SCCEngine {
+    private final GraphView graph;
+    private final Metrics metrics;
+
+    public IterativeTarjanSCC(GraphView graph, Metrics metrics) {
+        this.graph = graph;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public SCCPartition findComponents() {
+        int n = graph.getVertices();
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] cursor = new int[n];
+        int[] callStack = new int[n];
+        int[] sccStack = new int[n];
+        int[] componentOf = new int[n];
+        int[] vertices = new int[n];
+        int[] offsets = new int[n + 1];
+
+        Arrays.fill(index, -1);
+        Arrays.fill(componentOf, -1);
+
+        metrics.startTiming();
+
+        int counter = 0;
+        int components = 0;
+        int emitted = 0;
+        long edgeTraversals = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] != -1) {
+                continue;
+            }
+
+            int callTop = 0;
+            int sccTop = 0;
+            index[root] = low[root] = counter++;
+            sccStack[sccTop++] = root;
+            callStack[callTop++] = root;
+
+            while (callTop > 0) {
+                int u = callStack[callTop - 1];
+
+                if (cursor[u] < graph.outDegree(u)) {
+                    int v = graph.edgeTarget(u, cursor[u]++);
+                    edgeTraversals++;
+
+                    if (index[v] == -1) {
+                        index[v] = low[v] = counter++;
+                        sccStack[sccTop++] = v;
+                        callStack[callTop++] = v;
+                    } else if (componentOf[v] == -1 && index[v] < low[u]) {
+                        low[u] = index[v];
+                    }
+                    continue;
+                }
+
+                callTop--;
+                if (low[u] == index[u]) {
+                    int v;
+                    do {
+                        v = sccStack[--sccTop];
+                        componentOf[v] = components;
+                        vertices[emitted++] = v;
+                    } while (v != u);
+                    offsets[++components] = emitted;
+                }
+
+                if (callTop > 0) {
+                    int parent = callStack[callTop - 1];
+                    if (low[u] < low[parent]) {
+                        low[parent] = low[u];
+                    }
+                }
+            }
+        }
+
+        metrics.stopTiming();
+        metrics.addCounter("dfs_visits", n);
+        metrics.addCounter("edge_traversals", edgeTraversals);
+        metrics.addCounter("stack_pops", n);
+
+        return new SCCPartition(componentOf, Arrays.copyOf(offsets, components + 1), vertices);
+    }
+}
@@ -0,0 +1,93 @@
+package graph.scc;
+
+import graph.common.GraphView;
+import graph.common.Metrics;
+
+import java.util.Arrays;
+
+public class KosarajuSCC implements SCCEngine {
+    private final GraphView graph;
+    private final Metrics metrics;
+
+    public KosarajuSCC(GraphView graph, Metrics metrics) {
+        this.graph = graph;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public SCCPartition findComponents() {
+        int n = graph.getVertices();
+
+        metrics.startTiming();
+
+        GraphView reversed = graph.reversed();
+        int[] finishOrder = new int[n];
+        int[] cursor = new int[n];
+        int[] stack = new int[n];
+        boolean[] visited = new boolean[n];
+        int finished = 0;
+        long edgeTraversals = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (visited[root]) {
+                continue;
+            }
+            int top = 0;
+            visited[root] = true;
+            stack[top++] = root;
+
+            while (top > 0) {
+                int u = stack[top - 1];
+                if (cursor[u] < reversed.outDegree(u)) {
+                    int v = reversed.edgeTarget(u, cursor[u]++);
+                    edgeTraversals++;
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        stack[top++] = v;
+                    }
+                } else {
+                    finishOrder[finished++] = u;
+                    top--;
+                }
+            }
+        }
+
+        int[] componentOf = new int[n];
+        int[] vertices = new int[n];
+        int[] offsets = new int[n + 1];
+        int components = 0;
+        int emitted = 0;
+        Arrays.fill(componentOf, -1);
+
+        for (int i = n - 1; i >= 0; i--) {
+            int root = finishOrder[i];
+            if (componentOf[root] != -1) {
+                continue;
+            }
+            int top = 0;
+            componentOf[root] = components;
+            stack[top++] = root;
+
+            while (top > 0) {
+                int u = stack[--top];
+                vertices[emitted++] = u;
+                int degree = graph.outDegree(u);
+                for (int j = 0; j < degree; j++) {
+                    int v = graph.edgeTarget(u, j);
+                    edgeTraversals++;
+                    if (componentOf[v] == -1) {
+                        componentOf[v] = components;
+                        stack[top++] = v;
+                    }
+                }
+            }
+            offsets[++components] = emitted;
+        }
+
+        metrics.stopTiming();
+        metrics.addCounter("dfs_visits", 2L * n);
+        metrics.addCounter("edge_traversals", edgeTraversals);
+
+        return new SCCPartition(componentOf, Arrays.copyOf(offsets, components + 1), vertices);
+    }
+}
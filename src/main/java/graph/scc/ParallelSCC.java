@@ -0,0 +1,368 @@
+package graph.scc;
+
+import graph.common.GraphView;
+import graph.common.Metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ParallelSCC implements SCCEngine {
+    private static final int SEQUENTIAL_THRESHOLD = 4096;
+    private static final int UNBALANCED_SPLIT = 16;
+    private static final int DONE = 0;
+    private static final int INITIAL_COLOR = 1;
+
+    private final GraphView graph;
+    private final Metrics metrics;
+    private final ForkJoinPool pool;
+
+    private int[] outOffsets;
+    private int[] outTargets;
+    private int[] inOffsets;
+    private int[] inSources;
+
+    private int[] color;
+    private int[] componentOf;
+    private int[] forwardMark;
+    private int[] backwardMark;
+    private int[] index;
+    private int[] low;
+    private int[] cursor;
+    private AtomicInteger nextColor;
+    private int frontTrimmed;
+
+    public ParallelSCC(GraphView graph, Metrics metrics) {
+        this(graph, metrics, ForkJoinPool.commonPool());
+    }
+
+    public ParallelSCC(GraphView graph, Metrics metrics, ForkJoinPool pool) {
+        this.graph = graph;
+        this.metrics = metrics;
+        this.pool = pool;
+    }
+
+    @Override
+    public SCCPartition findComponents() {
+        int n = graph.getVertices();
+
+        metrics.startTiming();
+
+        buildAdjacency(n);
+        color = new int[n];
+        componentOf = new int[n];
+        forwardMark = new int[n];
+        backwardMark = new int[n];
+        index = new int[n];
+        low = new int[n];
+        cursor = new int[n];
+        nextColor = new AtomicInteger(INITIAL_COLOR + 1);
+
+        Arrays.fill(color, INITIAL_COLOR);
+        Arrays.fill(index, -1);
+
+        int trimmed = trim(n);
+        metrics.addCounter("trimmed_vertices", trimmed);
+
+        int[] remaining = new int[n - trimmed];
+        int size = 0;
+        for (int v = 0; v < n; v++) {
+            if (color[v] == INITIAL_COLOR) {
+                remaining[size++] = v;
+            }
+        }
+
+        if (size > 0) {
+            pool.invoke(new DecomposeTask(null, remaining, INITIAL_COLOR, frontTrimmed));
+        }
+
+        SCCPartition partition = numberComponents(n);
+
+        metrics.stopTiming();
+        metrics.addCounter("fw_bw_colors", nextColor.get() - INITIAL_COLOR);
+
+        outOffsets = outTargets = inOffsets = inSources = null;
+        color = forwardMark = backwardMark = index = low = cursor = null;
+        return partition;
+    }
+
+    private void buildAdjacency(int n) {
+        outOffsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            outOffsets[u + 1] = outOffsets[u] + graph.outDegree(u);
+        }
+
+        int m = outOffsets[n];
+        outTargets = new int[m];
+        inOffsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            int degree = graph.outDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.edgeTarget(u, i);
+                outTargets[outOffsets[u] + i] = v;
+                inOffsets[v + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            inOffsets[v + 1] += inOffsets[v];
+        }
+
+        inSources = new int[m];
+        int[] fill = Arrays.copyOf(inOffsets, n);
+        for (int u = 0; u < n; u++) {
+            for (int e = outOffsets[u]; e < outOffsets[u + 1]; e++) {
+                inSources[fill[outTargets[e]]++] = u;
+            }
+        }
+    }
+
+    private int trim(int n) {
+        int[] inDegree = new int[n];
+        int[] outDegree = new int[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        int front = 0;
+        int back = n;
+
+        for (int v = 0; v < n; v++) {
+            inDegree[v] = inOffsets[v + 1] - inOffsets[v];
+            outDegree[v] = outOffsets[v + 1] - outOffsets[v];
+            if (inDegree[v] == 0 || outDegree[v] == 0) {
+                queue[tail++] = v;
+                color[v] = DONE;
+                componentOf[v] = inDegree[v] == 0 ? front++ : --back;
+            }
+        }
+
+        while (head < tail) {
+            int v = queue[head++];
+
+            for (int e = outOffsets[v]; e < outOffsets[v + 1]; e++) {
+                int w = outTargets[e];
+                if (color[w] != DONE && --inDegree[w] == 0) {
+                    color[w] = DONE;
+                    componentOf[w] = front++;
+                    queue[tail++] = w;
+                }
+            }
+            for (int e = inOffsets[v]; e < inOffsets[v + 1]; e++) {
+                int w = inSources[e];
+                if (color[w] != DONE && --outDegree[w] == 0) {
+                    color[w] = DONE;
+                    componentOf[w] = --back;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        frontTrimmed = front;
+        return tail;
+    }
+
+    private SCCPartition numberComponents(int n) {
+        boolean[] isKey = new boolean[n];
+        for (int v = 0; v < n; v++) {
+            isKey[componentOf[v]] = true;
+        }
+
+        int[] idAt = new int[n];
+        int count = 0;
+        for (int position = n - 1; position >= 0; position--) {
+            if (isKey[position]) {
+                idAt[position] = count++;
+            }
+        }
+
+        int[] result = new int[n];
+        int[] offsets = new int[count + 1];
+        for (int v = 0; v < n; v++) {
+            result[v] = idAt[componentOf[v]];
+            offsets[result[v] + 1]++;
+        }
+        for (int c = 0; c < count; c++) {
+            offsets[c + 1] += offsets[c];
+        }
+
+        int[] vertices = new int[n];
+        int[] fill = Arrays.copyOf(offsets, count);
+        for (int v = 0; v < n; v++) {
+            vertices[fill[result[v]]++] = v;
+        }
+        return new SCCPartition(result, offsets, vertices);
+    }
+
+    private final class DecomposeTask extends CountedCompleter<Void> {
+        private static final long serialVersionUID = 1L;
+
+        private int[] vertices;
+        private final int taskColor;
+        private final int base;
+        private final boolean sequential;
+
+        DecomposeTask(CountedCompleter<?> parent, int[] vertices, int taskColor, int base) {
+            this(parent, vertices, taskColor, base, false);
+        }
+
+        DecomposeTask(CountedCompleter<?> parent, int[] vertices, int taskColor, int base, boolean sequential) {
+            super(parent);
+            this.vertices = vertices;
+            this.taskColor = taskColor;
+            this.base = base;
+            this.sequential = sequential;
+        }
+
+        @Override
+        public void compute() {
+            int[] vertices = this.vertices;
+            this.vertices = null;
+
+            if (sequential || vertices.length <= SEQUENTIAL_THRESHOLD) {
+                restrictedTarjan(vertices, taskColor);
+                tryComplete();
+                return;
+            }
+
+            int pivot = vertices[0];
+            int[] queue = new int[vertices.length];
+            reach(pivot, outOffsets, outTargets, forwardMark, queue);
+            reach(pivot, inOffsets, inSources, backwardMark, queue);
+
+            int forwardOnly = 0;
+            int backwardOnly = 0;
+            int rest = 0;
+            for (int v : vertices) {
+                boolean forward = forwardMark[v] == taskColor;
+                boolean backward = backwardMark[v] == taskColor;
+                if (forward && !backward) {
+                    forwardOnly++;
+                } else if (backward && !forward) {
+                    backwardOnly++;
+                } else if (!forward) {
+                    rest++;
+                }
+            }
+
+            int[] forwardSet = new int[forwardOnly];
+            int[] backwardSet = new int[backwardOnly];
+            int[] restSet = new int[rest];
+            int component = base + backwardOnly;
+            int restBase = base + vertices.length - forwardOnly - rest;
+            int forwardBase = base + vertices.length - forwardOnly;
+            int forwardColor = nextColor.getAndIncrement();
+            int backwardColor = nextColor.getAndIncrement();
+            int restColor = nextColor.getAndIncrement();
+            forwardOnly = backwardOnly = rest = 0;
+
+            for (int v : vertices) {
+                boolean forward = forwardMark[v] == taskColor;
+                boolean backward = backwardMark[v] == taskColor;
+                if (forward && backward) {
+                    color[v] = DONE;
+                    componentOf[v] = component;
+                } else if (forward) {
+                    color[v] = forwardColor;
+                    forwardSet[forwardOnly++] = v;
+                } else if (backward) {
+                    color[v] = backwardColor;
+                    backwardSet[backwardOnly++] = v;
+                } else {
+                    color[v] = restColor;
+                    restSet[rest++] = v;
+                }
+            }
+
+            int unbalanced = vertices.length - vertices.length / UNBALANCED_SPLIT;
+            fork(forwardSet, forwardColor, forwardBase, unbalanced);
+            fork(backwardSet, backwardColor, base, unbalanced);
+            fork(restSet, restColor, restBase, unbalanced);
+            tryComplete();
+        }
+
+        private void fork(int[] subset, int subsetColor, int subsetBase, int unbalanced) {
+            if (subset.length > 0) {
+                addToPendingCount(1);
+                new DecomposeTask(this, subset, subsetColor, subsetBase, subset.length > unbalanced).fork();
+            }
+        }
+
+        private void reach(int pivot, int[] offsets, int[] targets, int[] mark, int[] queue) {
+            int head = 0;
+            int tail = 0;
+            mark[pivot] = taskColor;
+            queue[tail++] = pivot;
+            while (head < tail) {
+                int u = queue[head++];
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    if (color[v] == taskColor && mark[v] != taskColor) {
+                        mark[v] = taskColor;
+                        queue[tail++] = v;
+                    }
+                }
+            }
+        }
+
+        private void restrictedTarjan(int[] subset, int subsetColor) {
+            int[] callStack = new int[subset.length];
+            int[] sccStack = new int[subset.length];
+            int counter = 0;
+            int end = base + subset.length;
+
+            for (int root : subset) {
+                if (index[root] != -1) {
+                    continue;
+                }
+
+                int callTop = 0;
+                int sccTop = 0;
+                index[root] = low[root] = counter++;
+                cursor[root] = outOffsets[root];
+                sccStack[sccTop++] = root;
+                callStack[callTop++] = root;
+
+                while (callTop > 0) {
+                    int u = callStack[callTop - 1];
+
+                    if (cursor[u] < outOffsets[u + 1]) {
+                        int v = outTargets[cursor[u]++];
+                        if (color[v] != subsetColor) {
+                            continue;
+                        }
+                        if (index[v] == -1) {
+                            index[v] = low[v] = counter++;
+                            cursor[v] = outOffsets[v];
+                            sccStack[sccTop++] = v;
+                            callStack[callTop++] = v;
+                        } else if (index[v] < low[u]) {
+                            low[u] = index[v];
+                        }
+                        continue;
+                    }
+
+                    callTop--;
+                    if (low[u] == index[u]) {
+                        int size = 0;
+                        int v;
+                        do {
+                            v = sccStack[--sccTop];
+                            color[v] = DONE;
+                            size++;
+                        } while (v != u);
+                        end -= size;
+                        for (int i = sccTop; i < sccTop + size; i++) {
+                            componentOf[sccStack[i]] = end;
+                        }
+                    }
+
+                    if (callTop > 0) {
+                        int parent = callStack[callTop - 1];
+                        if (low[u] < low[parent]) {
+                            low[parent] = low[u];
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
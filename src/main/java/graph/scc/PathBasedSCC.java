@@ -0,0 +1,92 @@
+package graph.scc;
+
+import graph.common.GraphView;
+import graph.common.Metrics;
+
+import java.util.Arrays;
+
+public class PathBasedSCC implements SCCEngine {
+    private final GraphView graph;
+    private final Metrics metrics;
+
+    public PathBasedSCC(GraphView graph, Metrics metrics) {
+        this.graph = graph;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public SCCPartition findComponents() {
+        int n = graph.getVertices();
+        int[] preorder = new int[n];
+        int[] cursor = new int[n];
+        int[] callStack = new int[n];
+        int[] pathStack = new int[n];
+        int[] boundaryStack = new int[n];
+        int[] componentOf = new int[n];
+        int[] vertices = new int[n];
+        int[] offsets = new int[n + 1];
+
+        Arrays.fill(preorder, -1);
+        Arrays.fill(componentOf, -1);
+
+        metrics.startTiming();
+
+        int counter = 0;
+        int components = 0;
+        int emitted = 0;
+        long edgeTraversals = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (preorder[root] != -1) {
+                continue;
+            }
+
+            int callTop = 0;
+            int pathTop = 0;
+            int boundaryTop = 0;
+            preorder[root] = counter++;
+            pathStack[pathTop++] = root;
+            boundaryStack[boundaryTop++] = root;
+            callStack[callTop++] = root;
+
+            while (callTop > 0) {
+                int u = callStack[callTop - 1];
+
+                if (cursor[u] < graph.outDegree(u)) {
+                    int v = graph.edgeTarget(u, cursor[u]++);
+                    edgeTraversals++;
+
+                    if (preorder[v] == -1) {
+                        preorder[v] = counter++;
+                        pathStack[pathTop++] = v;
+                        boundaryStack[boundaryTop++] = v;
+                        callStack[callTop++] = v;
+                    } else if (componentOf[v] == -1) {
+                        while (preorder[boundaryStack[boundaryTop - 1]] > preorder[v]) {
+                            boundaryTop--;
+                        }
+                    }
+                    continue;
+                }
+
+                callTop--;
+                if (boundaryStack[boundaryTop - 1] == u) {
+                    boundaryTop--;
+                    int v;
+                    do {
+                        v = pathStack[--pathTop];
+                        componentOf[v] = components;
+                        vertices[emitted++] = v;
+                    } while (v != u);
+                    offsets[++components] = emitted;
+                }
+            }
+        }
+
+        metrics.stopTiming();
+        metrics.addCounter("dfs_visits", n);
+        metrics.addCounter("edge_traversals", edgeTraversals);
+
+        return new SCCPartition(componentOf, Arrays.copyOf(offsets, components + 1), vertices);
+    }
+}
@@ -0,0 +1,5 @@
+package graph.scc;
+
+public interface SCCEngine {
+    SCCPartition findComponents();
+}
@@ -0,0 +1,27 @@
+package graph.scc;
+
+import graph.common.GraphView;
+import graph.common.Metrics;
+
+public final class SCCEngineSelector {
+    private static final long PARALLEL_MIN_SIZE = 2_000_000;
+    private static final double PARALLEL_MIN_AVERAGE_DEGREE = 2.0;
+
+    private SCCEngineSelector() {
+    }
+
+    public static SCCEngine select(GraphView graph, Metrics metrics) {
+        return select(graph, metrics, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static SCCEngine select(GraphView graph, Metrics metrics, int cores) {
+        int n = graph.getVertices();
+        long m = graph.countEdges();
+        double averageDegree = n == 0 ? 0.0 : (double) m / n;
+
+        if (cores > 1 && n + m >= PARALLEL_MIN_SIZE && averageDegree >= PARALLEL_MIN_AVERAGE_DEGREE) {
+            return new ParallelSCC(graph, metrics);
+        }
+        return new IterativeTarjanSCC(graph, metrics);
+    }
+}
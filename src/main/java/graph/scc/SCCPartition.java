@@ -0,0 +1,116 @@
+package graph.scc;
+
+import graph.common.GraphView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SCCPartition {
+    public final int[] componentOf;
+    public final int[] offsets;
+    public final int[] vertices;
+
+    public SCCPartition(int[] componentOf, int[] offsets, int[] vertices) {
+        this.componentOf = componentOf;
+        this.offsets = offsets;
+        this.vertices = vertices;
+    }
+
+    public int getComponentCount() {
+        return offsets.length - 1;
+    }
+
+    public int getComponentSize(int component) {
+        return offsets[component + 1] - offsets[component];
+    }
+
+    public int getMember(int component, int i) {
+        return vertices[offsets[component] + i];
+    }
+
+    public SCCPartition inTarjanOrder(GraphView graph) {
+        int n = componentOf.length;
+        int count = getComponentCount();
+        int[] rootOf = new int[count];
+        Arrays.fill(rootOf, -1);
+        int[] byDiscovery = new int[n];
+        boolean[] visited = new boolean[n];
+        int[] stackVertex = new int[n];
+        int[] stackEdge = new int[n];
+        int[] finalId = new int[count];
+        int discovered = 0;
+        int finished = 0;
+
+        for (int start = 0; start < n; start++) {
+            if (visited[start]) {
+                continue;
+            }
+            int top = 0;
+            visited[start] = true;
+            byDiscovery[discovered++] = start;
+            if (rootOf[componentOf[start]] == -1) {
+                rootOf[componentOf[start]] = start;
+            }
+            stackVertex[top] = start;
+            stackEdge[top] = 0;
+            top++;
+
+            while (top > 0) {
+                int u = stackVertex[top - 1];
+                int e = stackEdge[top - 1];
+                if (e < graph.outDegree(u)) {
+                    stackEdge[top - 1] = e + 1;
+                    int v = graph.edgeTarget(u, e);
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        byDiscovery[discovered++] = v;
+                        if (rootOf[componentOf[v]] == -1) {
+                            rootOf[componentOf[v]] = v;
+                        }
+                        stackVertex[top] = v;
+                        stackEdge[top] = 0;
+                        top++;
+                    }
+                } else {
+                    top--;
+                    if (rootOf[componentOf[u]] == u) {
+                        finalId[componentOf[u]] = finished++;
+                    }
+                }
+            }
+        }
+
+        int[] newOffsets = new int[count + 1];
+        for (int c = 0; c < count; c++) {
+            newOffsets[finalId[c] + 1] = getComponentSize(c);
+        }
+        for (int c = 0; c < count; c++) {
+            newOffsets[c + 1] += newOffsets[c];
+        }
+
+        int[] newVertices = new int[n];
+        int[] fill = Arrays.copyOf(newOffsets, count);
+        int[] result = new int[n];
+        for (int i = n - 1; i >= 0; i--) {
+            int v = byDiscovery[i];
+            int c = finalId[componentOf[v]];
+            result[v] = c;
+            newVertices[fill[c]++] = v;
+        }
+        return new SCCPartition(result, newOffsets, newVertices);
+    }
+
+    public List<List<Integer>> toLists() {
+        int count = getComponentCount();
+        List<List<Integer>> sccs = new ArrayList<>(count);
+        for (int c = 0; c < count; c++) {
+            List<Integer> scc = new ArrayList<>(getComponentSize(c));
+            for (int i = offsets[c]; i < offsets[c + 1]; i++) {
+                scc.add(vertices[i]);
+            }
+            sccs.add(scc);
+        }
+        return sccs;
+    }
+}
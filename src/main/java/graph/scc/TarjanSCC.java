@@ -1,12 +1,14 @@
 package graph.scc;
 
+import graph.common.BasicMetrics;
 import graph.common.Graph;
+import graph.common.GraphView;
 import graph.common.Metrics;
 
 import java.util.*;
 
 public class TarjanSCC {
-    private final Graph graph;
+    private final GraphView graph;
     private final Metrics metrics;
 
     private int[] ids;
@@ -16,7 +18,7 @@ public class TarjanSCC {
     private int id;
     private List<List<Integer>> sccs;
 
-    public TarjanSCC(Graph graph, Metrics metrics) {
+    public TarjanSCC(GraphView graph, Metrics metrics) {
         this.graph = graph;
         this.metrics = metrics;
     }
@@ -52,8 +54,9 @@ public class TarjanSCC {
         stack.push(u);
         onStack[u] = true;
 
-        for (Graph.Edge edge : graph.getAdjacent(u)) {
-            int v = edge.to;
+        int degree = graph.outDegree(u);
+        for (int i = 0; i < degree; i++) {
+            int v = graph.edgeTarget(u, i);
             metrics.incrementCounter("edge_traversals");
 
             if (ids[v] == -1) {
@@ -80,39 +83,7 @@ public class TarjanSCC {
     }
 
     public Graph buildCondensationGraph(List<List<Integer>> sccs) {
-        int numSCCs = sccs.size();
-        Graph condensation = new Graph(numSCCs);
-
-        int[] vertexToSCC = new int[graph.getVertices()];
-        for (int i = 0; i < sccs.size(); i++) {
-            for (int v : sccs.get(i)) {
-                vertexToSCC[v] = i;
-            }
-            if (sccs.get(i).size() == 1) {
-                condensation.setTaskName(i, graph.getTaskName(sccs.get(i).get(0)));
-            } else {
-                condensation.setTaskName(i, "SCC_" + i + "_" + sccs.get(i).size() + "_tasks");
-            }
-        }
-
-        Set<String> addedEdges = new HashSet<>();
-        for (int u = 0; u < graph.getVertices(); u++) {
-            int sccU = vertexToSCC[u];
-            for (Graph.Edge edge : graph.getAdjacent(u)) {
-                int v = edge.to;
-                int sccV = vertexToSCC[v];
-
-                if (sccU != sccV) {
-                    String edgeKey = sccU + "->" + sccV;
-                    if (!addedEdges.contains(edgeKey)) {
-                        condensation.addEdge(sccU, sccV, edge.weight);
-                        addedEdges.add(edgeKey);
-                    }
-                }
-            }
-        }
-
-        return condensation;
+        return new CondensationBuilder(graph, new BasicMetrics()).build(sccs, CondensationBuilder.WeightAggregation.FIRST);
     }
 
     public SCCResult getResults() {
@@ -132,7 +103,7 @@ public class TarjanSCC {
             this.metrics = metrics;
         }
 
-        public void printResults(Graph originalGraph) {
+        public void printResults(GraphView originalGraph) {
             System.out.println("Strongly Connected Components");
             System.out.println("Total SCCs found: " + sccs.size());
             System.out.println();
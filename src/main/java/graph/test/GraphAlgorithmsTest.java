@@ -1,16 +1,55 @@
 package graph.test;
 
 import graph.common.BasicMetrics;
+import graph.common.CSRGraph;
+import graph.common.DegreeIndex;
 import graph.common.Graph;
+import graph.common.GraphLoader;
+import graph.common.GraphSnapshotCache;
+import graph.common.GraphView;
+import graph.common.LongHashSet;
+import graph.common.LongIntHashMap;
+import graph.common.MappedGraph;
+import graph.dagsp.AllPairsDAGDistances;
+import graph.dagsp.CriticalPathAnalysis;
+import graph.dagsp.DAGPathQuery;
 import graph.dagsp.DAGShortestPath;
+import graph.dagsp.DistanceMatrix;
+import graph.dagsp.KBestPaths;
+import graph.scc.CondensationBuilder;
+import graph.scc.IncrementalSCC;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.KosarajuSCC;
+import graph.scc.ParallelSCC;
+import graph.scc.PathBasedSCC;
+import graph.scc.SCCEngine;
+import graph.scc.SCCPartition;
 import graph.scc.TarjanSCC;
+import graph.topo.CycleException;
+import graph.topo.DynamicTopologicalOrder;
+import graph.topo.ParallelTopologicalSort;
+import graph.topo.TopologicalIterator;
 import graph.topo.TopologicalSort;
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 public class GraphAlgorithmsTest {
 
@@ -68,5 +107,1033 @@ public class GraphAlgorithmsTest {
         assertEquals(1, components.size());
         assertEquals(3, components.get(0).size());
     }
-}
 
+    @Test
+    public void testCSRGraph() {
+        Graph g = new Graph(4);
+        g.setTaskName(0, "A");
+        g.addEdge(0, 1, 2);
+        g.addEdge(0, 2, 1);
+        g.addEdge(1, 3, 4);
+        g.addEdge(2, 3, 1);
+
+        CSRGraph csr = new CSRGraph(g);
+
+        assertEquals(4, csr.countEdges());
+        assertEquals(2, csr.outDegree(0));
+        assertEquals(3, csr.edgeTarget(1, 0));
+        assertEquals("A", csr.getTaskName(0));
+        assertEquals("Task_3", csr.getTaskName(3));
+
+        DAGShortestPath sp = new DAGShortestPath(csr, new BasicMetrics());
+        assertEquals(2.0, sp.shortestPaths(0).dist[3], 0.001);
+        assertEquals(4, new TopologicalSort(csr, new BasicMetrics()).sort().size());
+    }
+
+    @Test
+    public void testBinaryRoundTrip() throws Exception {
+        Graph g = new Graph(3);
+        g.setTaskName(0, "Start");
+        g.setTaskName(1, "Middle");
+        g.setTaskName(2, "End");
+        g.addEdge(0, 1, 1.5);
+        g.addEdge(1, 2, 2.5);
+
+        File file = File.createTempFile("graph", GraphLoader.BINARY_EXTENSION);
+        file.deleteOnExit();
+        GraphLoader.saveToBinary(g, file.getPath());
+        MappedGraph mapped = GraphLoader.openBinary(file.getPath());
+
+        assertEquals(3, mapped.getVertices());
+        assertEquals(2, mapped.countEdges());
+        assertEquals("Middle", mapped.getTaskName(1));
+        assertEquals(2, mapped.edgeTarget(1, 0));
+        assertEquals(2.5, mapped.edgeWeight(1, 0), 0.0);
+
+        DAGShortestPath sp = new DAGShortestPath(mapped, new BasicMetrics());
+        assertEquals(4.0, sp.shortestPaths(0).dist[2], 0.001);
+    }
+
+    @Test
+    public void testStreamingJSONLoader() throws Exception {
+        String json = "{\"vertices\": 3, \"edges\": ["
+                + "{\"weight\": 2, \"from\": \"A\", \"to\": \"B\"},"
+                + "{\"from\": \"B\", \"to\": \"C\", \"weight\": 3.5},"
+                + "{\"from\": \"C\", \"to\": \"Unknown\"}"
+                + "], \"tasks\": [\"A\", \"B\", \"C\"]}";
+
+        File file = File.createTempFile("graph", ".json");
+        file.deleteOnExit();
+        Files.write(file.toPath(), json.getBytes(StandardCharsets.UTF_8));
+
+        Graph g = GraphLoader.loadFromJSONStreaming(file.getPath());
+
+        assertEquals(3, g.getVertices());
+        assertEquals(2, g.countEdges());
+        assertEquals("C", g.getTaskName(2));
+        assertEquals(1, g.getAdjacent(0).get(0).to);
+        assertEquals(3.5, g.getAdjacent(1).get(0).weight, 0.0);
+    }
+
+    @Test
+    public void testJSONWriterRoundTrip() throws Exception {
+        Graph g = new Graph(5);
+        g.setTaskName(0, "Say \"hi\"");
+        g.setTaskName(1, "back\\slash");
+        g.setTaskName(2, "tab\there\nline");
+        g.setTaskName(3, "</script>");
+        g.setTaskName(4, "caf\u00e9 \u2028 \u0001");
+        g.addEdge(0, 1, 1.0);
+        g.addEdge(1, 2, 2.5);
+        g.addEdge(2, 3, 1e-7);
+        g.addEdge(3, 4, 1e21);
+        g.addEdge(4, 0, -3.25);
+
+        for (boolean pretty : new boolean[]{true, false}) {
+            assertJSONRoundTrip(g, pretty);
+        }
+    }
+
+    @Test
+    public void testJSONWriterSingleElementArrays() throws Exception {
+        Graph g = new Graph(1);
+        g.setTaskName(0, "A");
+        g.addEdge(0, 0, 2.0);
+
+        StringWriter pretty = new StringWriter();
+        GraphLoader.writeJSON(g, pretty, true);
+        assertEquals("{\n  \"vertices\": 1,\n  \"edges\": [{\n    \"weight\": 2,\n    \"from\": \"A\",\n"
+                + "    \"to\": \"A\"\n  }],\n  \"tasks\": [\"A\"]\n}", pretty.toString());
+
+        StringWriter compact = new StringWriter();
+        GraphLoader.writeJSON(g, compact, false);
+        assertEquals("{\"vertices\":1,\"edges\":[{\"weight\":2,\"from\":\"A\",\"to\":\"A\"}],\"tasks\":[\"A\"]}",
+                compact.toString());
+
+        for (boolean format : new boolean[]{true, false}) {
+            assertJSONRoundTrip(g, format);
+        }
+
+        Graph pair = new Graph(2);
+        pair.addEdge(1, 0, 0.5);
+        for (boolean format : new boolean[]{true, false}) {
+            assertJSONRoundTrip(pair, format);
+        }
+    }
+
+    private static void assertJSONRoundTrip(GraphView g, boolean pretty) throws Exception {
+        File file = File.createTempFile("graph", ".json");
+        file.deleteOnExit();
+        GraphLoader.saveToJSON(g, file.getPath(), pretty);
+
+        assertSameGraph(g, GraphLoader.loadFromJSON(file.getPath()));
+        assertSameGraph(g, GraphLoader.loadFromJSONStreaming(file.getPath()));
+    }
+
+    @Test
+    public void testParallelJSONLoaderMatchesStreaming() throws Exception {
+        int n = 2000;
+        Graph g = new Graph(n);
+        for (int v = 0; v < n; v++) {
+            g.setTaskName(v, "Task_" + v);
+        }
+        Random random = new Random(11);
+        for (int i = 0; i < 30000; i++) {
+            g.addEdge(random.nextInt(n), random.nextInt(n), random.nextInt(100) / 4.0);
+        }
+
+        File file = File.createTempFile("graph", ".json");
+        file.deleteOnExit();
+        GraphLoader.saveToJSON(g, file.getPath(), false);
+        assertTrue(file.length() > 4 * (1 << 16));
+
+        Graph streaming = GraphLoader.loadFromJSONStreaming(file.getPath());
+        assertSameGraph(streaming, GraphLoader.loadFromJSONParallel(file.getPath(), 1));
+        assertSameGraph(streaming, GraphLoader.loadFromJSONParallel(file.getPath(), 4));
+    }
+
+    @Test
+    public void testParallelJSONLoaderReportsMalformedEdges() throws Exception {
+        StringBuilder edges = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            edges.append("{\"from\": \"A\", \"to\": \"B\", \"weight\": 1.5},");
+        }
+
+        String[] malformed = {"{\"from\": \"B\"}", "{\"from\": \"A\", \"to\": \"B\", \"weight\": -}"};
+        for (String edge : malformed) {
+            String json = "{\"vertices\": 2, \"tasks\": [\"A\", \"B\"], \"edges\": [" + edges + edge + "]}";
+            File file = File.createTempFile("graph", ".json");
+            file.deleteOnExit();
+            Files.write(file.toPath(), json.getBytes(StandardCharsets.UTF_8));
+
+            for (int parallelism : new int[]{1, 4}) {
+                Exception failure = null;
+                try {
+                    GraphLoader.loadFromJSONParallel(file.getPath(), parallelism);
+                } catch (Exception e) {
+                    failure = e;
+                }
+                assertTrue(failure instanceof IOException);
+            }
+        }
+    }
+
+    private static void assertSameGraph(GraphView expected, GraphView actual) {
+        assertEquals(expected.getVertices(), actual.getVertices());
+        assertEquals(expected.countEdges(), actual.countEdges());
+        for (int u = 0; u < expected.getVertices(); u++) {
+            assertEquals(expected.getTaskName(u), actual.getTaskName(u));
+            assertEquals(expected.outDegree(u), actual.outDegree(u));
+            for (int i = 0; i < expected.outDegree(u); i++) {
+                assertEquals(expected.edgeTarget(u, i), actual.edgeTarget(u, i));
+                assertEquals(expected.edgeWeight(u, i), actual.edgeWeight(u, i), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testCompressedRoundTrip() throws Exception {
+        Graph g = new Graph(3);
+        g.setTaskName(0, "A");
+        g.setTaskName(1, "B");
+        g.setTaskName(2, "C");
+        g.addEdge(0, 1, 2.0);
+        g.addEdge(0, 2, 0.5);
+
+        File json = File.createTempFile("graph", ".json.gz");
+        File binary = File.createTempFile("graph", GraphLoader.BINARY_EXTENSION + GraphLoader.GZIP_EXTENSION);
+        json.deleteOnExit();
+        binary.deleteOnExit();
+
+        GraphLoader.saveToJSON(g, json.getPath());
+        GraphLoader.saveToBinary(g, binary.getPath());
+
+        Graph fromJson = GraphLoader.loadFromJSONStreaming(json.getPath());
+        GraphView fromBinary = GraphLoader.load(binary.getPath());
+
+        assertEquals(g.toString(), fromJson.toString());
+        assertEquals(2, fromBinary.countEdges());
+        assertEquals("C", fromBinary.getTaskName(fromBinary.edgeTarget(0, 1)));
+        assertEquals(0.5, fromBinary.edgeWeight(0, 1), 0.0);
+    }
+
+    @Test
+    public void testEdgeListImport() throws Exception {
+        String edges = "# from\tto\tweight\n"
+                + "Collect\tSort\t2.5\n"
+                + "Sort\tReport\t1\r\n"
+                + "\n"
+                + "Collect\tReport\n";
+
+        File file = File.createTempFile("edges", GraphLoader.EDGE_LIST_EXTENSION);
+        file.deleteOnExit();
+        Files.write(file.toPath(), edges.getBytes(StandardCharsets.UTF_8));
+
+        CSRGraph g = GraphLoader.loadFromEdgeList(file.getPath());
+
+        assertEquals(3, g.getVertices());
+        assertEquals(3, g.countEdges());
+        assertEquals("Collect", g.getTaskName(0));
+        assertEquals("Report", g.getTaskName(2));
+        assertEquals(2, g.outDegree(0));
+        assertEquals(2.5, g.edgeWeight(0, 0), 0.0);
+        assertEquals(1.0, g.edgeWeight(0, 1), 0.0);
+    }
+
+    @Test
+    public void testSnapshotCacheReusesAndInvalidates() throws Exception {
+        File file = File.createTempFile("graph", ".json");
+        file.deleteOnExit();
+        File snapshot = GraphSnapshotCache.snapshotPath(file.getPath()).toFile();
+        snapshot.deleteOnExit();
+        Files.write(file.toPath(), ("{\"vertices\": 2, \"tasks\": [\"A\", \"B\"],"
+                + " \"edges\": [{\"from\": \"A\", \"to\": \"B\", \"weight\": 2}]}").getBytes(StandardCharsets.UTF_8));
+
+        GraphView parsed = GraphSnapshotCache.load(file.getPath());
+        assertFalse(parsed instanceof MappedGraph);
+        assertTrue(snapshot.isFile());
+
+        GraphView cached = GraphSnapshotCache.load(file.getPath());
+        assertTrue(cached instanceof MappedGraph);
+        assertSameGraph(parsed, cached);
+
+        assertTrue(file.setLastModified(file.lastModified() - 60_000));
+        assertFalse(GraphSnapshotCache.load(file.getPath()) instanceof MappedGraph);
+        assertTrue(GraphSnapshotCache.load(file.getPath()) instanceof MappedGraph);
+
+        long modified = file.lastModified();
+        Files.write(file.toPath(), ("{\"vertices\": 2, \"tasks\": [\"A\", \"B\"],"
+                + " \"edges\": [{\"from\": \"A\", \"to\": \"B\", \"weight\": 5}]}").getBytes(StandardCharsets.UTF_8));
+        assertTrue(file.setLastModified(modified));
+        GraphView changed = GraphSnapshotCache.load(file.getPath());
+        assertFalse(changed instanceof MappedGraph);
+        assertEquals(5.0, changed.edgeWeight(0, 0), 0.0);
+        assertEquals(5.0, GraphSnapshotCache.load(file.getPath()).edgeWeight(0, 0), 0.0);
+    }
+
+    @Test
+    public void testSnapshotCacheRebuildsDamagedSnapshots() throws Exception {
+        Graph g = new Graph(50);
+        for (int v = 0; v + 1 < 50; v++) {
+            g.addEdge(v, v + 1, v);
+        }
+        File file = File.createTempFile("graph", ".json");
+        file.deleteOnExit();
+        File snapshot = GraphSnapshotCache.snapshotPath(file.getPath()).toFile();
+        snapshot.deleteOnExit();
+        GraphLoader.saveToJSON(g, file.getPath());
+
+        GraphSnapshotCache.load(file.getPath());
+        byte[] intact = Files.readAllBytes(snapshot.toPath());
+
+        Files.write(snapshot.toPath(), Arrays.copyOf(intact, intact.length / 2));
+        GraphView rebuilt = GraphSnapshotCache.load(file.getPath());
+        assertFalse(rebuilt instanceof MappedGraph);
+        assertSameGraph(g, rebuilt);
+        assertArrayEquals(intact, Files.readAllBytes(snapshot.toPath()));
+
+        byte[] corrupt = intact.clone();
+        corrupt[corrupt.length - 100] ^= 0x7F;
+        Files.write(snapshot.toPath(), corrupt);
+        rebuilt = GraphSnapshotCache.load(file.getPath());
+        assertFalse(rebuilt instanceof MappedGraph);
+        assertSameGraph(g, rebuilt);
+        assertArrayEquals(intact, Files.readAllBytes(snapshot.toPath()));
+
+        GraphView cached = GraphSnapshotCache.load(file.getPath());
+        assertTrue(cached instanceof MappedGraph);
+        assertSameGraph(g, cached);
+    }
+
+    @Test
+    public void testSnapshotCacheLoadsEdgeLists() throws Exception {
+        File file = File.createTempFile("edges", GraphLoader.EDGE_LIST_EXTENSION);
+        file.deleteOnExit();
+        GraphSnapshotCache.snapshotPath(file.getPath()).toFile().deleteOnExit();
+        Files.write(file.toPath(), "a\tb\t2\nb\tc\n".getBytes(StandardCharsets.UTF_8));
+
+        GraphView first = GraphSnapshotCache.load(file.getPath());
+        assertEquals(3, first.getVertices());
+        assertEquals(2, first.countEdges());
+
+        GraphView cached = GraphSnapshotCache.load(file.getPath());
+        assertTrue(cached instanceof MappedGraph);
+        assertSameGraph(first, cached);
+    }
+
+    @Test
+    public void testTaskNames() {
+        Graph g = new Graph(3);
+        g.setTaskName(0, "Ingest");
+        g.setTaskName(2, "Publish");
+
+        assertEquals(Integer.valueOf(2), g.getTaskId("Publish"));
+        assertEquals(-1, g.findTaskId("Missing"));
+        assertNull(g.getTaskId("Missing"));
+        assertEquals("Task_1", g.getTaskName(1));
+        assertSame(g.getTaskName(1), g.getTaskName(1));
+        assertEquals("Publish", g.reverse().getTaskName(2));
+    }
+
+    @Test
+    public void testDegreeIndex() {
+        Graph g = new Graph(4);
+        g.addEdge(0, 1);
+        g.addEdge(0, 2);
+        g.addEdge(1, 3);
+
+        DegreeIndex index = g.getDegreeIndex();
+        assertSame(index, g.getDegreeIndex());
+        assertEquals(3, index.getEdgeCount());
+        assertEquals(2, index.getOutDegree(0));
+        assertEquals(0, index.firstSource());
+        assertEquals(2, index.getSinkCount());
+
+        g.addEdge(2, 3);
+        assertEquals(2, g.getDegreeIndex().getInDegree(3));
+        assertEquals(1, g.getDegreeIndex().getSinkCount());
+        assertEquals(4, g.countEdges());
+    }
+
+    @Test
+    public void testIterativeTarjanMatchesRecursive() {
+        Graph g = new Graph(6);
+        g.addEdge(0, 1);
+        g.addEdge(1, 2);
+        g.addEdge(2, 0);
+        g.addEdge(2, 3);
+        g.addEdge(3, 4);
+        g.addEdge(4, 3);
+        g.addEdge(4, 5);
+
+        SCCPartition partition = new IterativeTarjanSCC(g, new BasicMetrics()).findComponents();
+
+        assertEquals(3, partition.getComponentCount());
+        assertEquals(new TarjanSCC(g, new BasicMetrics()).findSCCs(), partition.toLists());
+        assertEquals(partition.componentOf[3], partition.componentOf[4]);
+    }
+
+    @Test
+    public void testIterativeTarjanLongChain() {
+        int n = 100_000;
+        Graph g = new Graph(n);
+        for (int i = 0; i + 1 < n; i++) {
+            g.addEdge(i, i + 1);
+        }
+        g.addEdge(n - 1, 0);
+
+        SCCPartition partition = new IterativeTarjanSCC(g, new BasicMetrics()).findComponents();
+
+        assertEquals(1, partition.getComponentCount());
+        assertEquals(n, partition.getComponentSize(0));
+    }
+
+    @Test
+    public void testParallelSCCMatchesTarjan() {
+        int n = 20_000;
+        Graph g = new Graph(n);
+        for (int i = 0; i + 1 < n; i++) {
+            g.addEdge(i, i + 1);
+            if (i % 7 == 0) {
+                g.addEdge(i + 1, i);
+            }
+        }
+        for (int i = 0; i < n; i += 500) {
+            g.addEdge(Math.min(i + 499, n - 1), i);
+        }
+
+        SCCPartition expected = new IterativeTarjanSCC(g, new BasicMetrics()).findComponents();
+        SCCPartition partition = new ParallelSCC(g, new BasicMetrics()).findComponents();
+
+        assertEquals(expected.getComponentCount(), partition.getComponentCount());
+        for (int u = 0; u < n; u++) {
+            for (int v = 0; v < n; v += 997) {
+                assertEquals(expected.componentOf[u] == expected.componentOf[v],
+                        partition.componentOf[u] == partition.componentOf[v]);
+            }
+            for (int i = 0; i < g.outDegree(u); i++) {
+                assertTrue(partition.componentOf[u] >= partition.componentOf[g.edgeTarget(u, i)]);
+            }
+        }
+
+        SCCPartition canonical = partition.inTarjanOrder(g);
+        assertArrayEquals(expected.componentOf, canonical.componentOf);
+        assertEquals(expected.toLists(), canonical.toLists());
+
+        Graph small = new Graph(6);
+        small.addEdge(0, 3);
+        small.addEdge(3, 4);
+        small.addEdge(4, 3);
+        small.addEdge(0, 1);
+        small.addEdge(1, 2);
+        small.addEdge(2, 1);
+        small.addEdge(5, 0);
+        assertEquals(new TarjanSCC(small, new BasicMetrics()).findSCCs(),
+                new ParallelSCC(small, new BasicMetrics()).findComponents().inTarjanOrder(small).toLists());
+    }
+
+    @Test
+    public void testIncrementalSCCMergesOnCycle() {
+        Graph g = new Graph(5);
+        g.addEdge(0, 1);
+        g.addEdge(1, 2);
+        g.addEdge(3, 4);
+
+        IncrementalSCC scc = new IncrementalSCC(g, new BasicMetrics());
+        assertEquals(5, scc.getComponentCount());
+
+        assertFalse(scc.addEdge(2, 3));
+        assertEquals(5, scc.getComponentCount());
+
+        assertTrue(scc.addEdge(3, 1));
+        assertEquals(3, scc.getComponentCount());
+        assertTrue(scc.sameComponent(1, 3));
+        assertTrue(scc.sameComponent(2, 3));
+        assertFalse(scc.sameComponent(0, 1));
+
+        Graph condensation = scc.toCondensationGraph();
+        assertEquals(3, condensation.getVertices());
+        assertEquals(2, condensation.countEdges());
+
+        assertTrue(scc.addEdge(4, 0));
+        assertEquals(1, scc.getComponentCount());
+        assertEquals(5, scc.getComponentSize(0));
+    }
+
+    @Test
+    public void testCondensationWeightAggregation() {
+        Graph g = new Graph(4);
+        g.addEdge(0, 1, 1.0);
+        g.addEdge(1, 0, 1.0);
+        g.addEdge(0, 2, 5.0);
+        g.addEdge(1, 2, 2.0);
+        g.addEdge(1, 3, 4.0);
+
+        SCCPartition partition = new IterativeTarjanSCC(g, new BasicMetrics()).findComponents();
+        CondensationBuilder builder = new CondensationBuilder(g, new BasicMetrics());
+        int from = partition.componentOf[0];
+        int to = partition.componentOf[2];
+
+        assertEquals(5.0, edgeWeight(builder.build(partition, CondensationBuilder.WeightAggregation.FIRST), from, to), 1e-9);
+        assertEquals(2.0, edgeWeight(builder.build(partition, CondensationBuilder.WeightAggregation.MIN), from, to), 1e-9);
+        assertEquals(5.0, edgeWeight(builder.build(partition, CondensationBuilder.WeightAggregation.MAX), from, to), 1e-9);
+        assertEquals(7.0, edgeWeight(builder.build(partition, CondensationBuilder.WeightAggregation.SUM), from, to), 1e-9);
+
+        Graph condensation = builder.build(partition, CondensationBuilder.WeightAggregation.SUM);
+        assertEquals(3, condensation.getVertices());
+        assertEquals(2, condensation.countEdges());
+    }
+
+    @Test
+    public void testTarjanCondensationKeepsSCCMetrics() {
+        Graph g = new Graph(3);
+        g.addEdge(0, 1);
+        g.addEdge(1, 0);
+        g.addEdge(1, 2);
+
+        BasicMetrics metrics = new BasicMetrics();
+        TarjanSCC tarjan = new TarjanSCC(g, metrics);
+        Graph condensation = tarjan.buildCondensationGraph(tarjan.findSCCs());
+
+        assertEquals(1, condensation.countEdges());
+        assertEquals(0L, metrics.getCounter("condensation_edges"));
+        assertEquals(0L, metrics.getCounter("parallel_edges"));
+    }
+
+    @Test
+    public void testLongHashTablesAcrossResize() {
+        LongHashSet set = new LongHashSet();
+        LongIntHashMap map = new LongIntHashMap();
+        for (int i = 0; i < 1000; i++) {
+            long key = (long) (i + 1) << 32 | (i * 7);
+            assertTrue(set.add(key));
+            assertEquals(-1, map.putIfAbsent(key, i));
+        }
+        assertTrue(set.add(0L));
+        assertEquals(-1, map.putIfAbsent(0L, 1000));
+
+        assertEquals(1001, set.size());
+        assertEquals(1001, map.size());
+        for (int i = 0; i < 1000; i++) {
+            long key = (long) (i + 1) << 32 | (i * 7);
+            assertTrue(set.contains(key));
+            assertEquals(i, map.get(key));
+            assertEquals(i, map.putIfAbsent(key, -5));
+        }
+        assertEquals(1000, map.get(0L));
+        assertEquals(-1, map.get(12345L));
+
+        for (int i = 0; i < 1000; i += 2) {
+            assertTrue(set.remove((long) (i + 1) << 32 | (i * 7)));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 1, set.contains((long) (i + 1) << 32 | (i * 7)));
+        }
+        assertEquals(501, set.size());
+    }
+
+    private static double edgeWeight(Graph g, int from, int to) {
+        for (int i = 0; i < g.outDegree(from); i++) {
+            if (g.edgeTarget(from, i) == to) {
+                return g.edgeWeight(from, i);
+            }
+        }
+        return Double.NaN;
+    }
+
+    @Test
+    public void testSCCEnginesAgree() {
+        Graph g = new Graph(8);
+        g.addEdge(0, 1);
+        g.addEdge(1, 2);
+        g.addEdge(2, 0);
+        g.addEdge(2, 3);
+        g.addEdge(3, 4);
+        g.addEdge(4, 5);
+        g.addEdge(5, 3);
+        g.addEdge(6, 7);
+        g.addEdge(7, 6);
+        g.addEdge(6, 0);
+
+        List<List<Integer>> expected = new TarjanSCC(g, new BasicMetrics()).findSCCs();
+        SCCEngine[] engines = {
+                new IterativeTarjanSCC(g, new BasicMetrics()),
+                new PathBasedSCC(g, new BasicMetrics()),
+                new KosarajuSCC(g, new BasicMetrics()),
+                new ParallelSCC(g, new BasicMetrics())
+        };
+
+        for (SCCEngine engine : engines) {
+            SCCPartition partition = engine.findComponents();
+            assertEquals(expected.size(), partition.getComponentCount());
+            for (List<Integer> scc : expected) {
+                for (int v : scc) {
+                    assertEquals(partition.componentOf[scc.get(0)], partition.componentOf[v]);
+                }
+            }
+            assertTrue(partition.componentOf[6] > partition.componentOf[0]);
+            assertTrue(partition.componentOf[0] > partition.componentOf[3]);
+        }
+
+        assertSame(g.reversed(), g.reversed());
+        g.addEdge(5, 6);
+        assertEquals(g.countEdges(), g.reversed().countEdges());
+    }
+
+    @Test
+    public void testPrimitiveTopologicalSort() {
+        int n = 100_000;
+        Graph chain = new Graph(n);
+        for (int i = 0; i + 1 < n; i++) {
+            chain.addEdge(i, i + 1);
+        }
+
+        TopologicalSort topo = new TopologicalSort(chain, new BasicMetrics());
+        int[] order = topo.sortToArray();
+        int[] dfsOrder = topo.sortDFSToArray();
+
+        assertEquals(n, order.length);
+        assertEquals(0, order[0]);
+        assertEquals(n - 1, order[n - 1]);
+        assertArrayEquals(order, dfsOrder);
+
+        chain.addEdge(n - 1, 0);
+        assertEquals(0, new TopologicalSort(chain, new BasicMetrics()).sortToArray().length);
+    }
+
+    @Test
+    public void testParallelTopologicalWavefronts() {
+        Graph g = new Graph(6);
+        g.addEdge(0, 2);
+        g.addEdge(1, 2);
+        g.addEdge(1, 3);
+        g.addEdge(2, 4);
+        g.addEdge(3, 4);
+        g.addEdge(4, 5);
+
+        ParallelTopologicalSort.WavefrontResult result =
+                new ParallelTopologicalSort(g, new BasicMetrics()).sortLevels();
+
+        assertTrue(result.isValid);
+        assertEquals(4, result.getLevelCount());
+        assertArrayEquals(new int[]{0, 1}, result.getLevel(0));
+        assertArrayEquals(new int[]{2, 3}, result.getLevel(1));
+        assertArrayEquals(new int[]{4}, result.getLevel(2));
+        assertArrayEquals(new int[]{5}, result.getLevel(3));
+        assertEquals(2, result.getMaxWidth());
+
+        g.addEdge(5, 1);
+        assertFalse(new ParallelTopologicalSort(g, new BasicMetrics()).sortLevels().isValid);
+    }
+
+    @Test
+    public void testParallelTopologicalWavefrontsOnWideLevels() {
+        int width = 10000;
+        int n = 3 * width;
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i;
+        }
+        Random random = new Random(17);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = ids[i];
+            ids[i] = ids[j];
+            ids[j] = swap;
+        }
+
+        Graph g = new Graph(n);
+        for (int level = 1; level < 3; level++) {
+            for (int i = 0; i < width; i++) {
+                int v = ids[level * width + i];
+                g.addEdge(ids[(level - 1) * width + random.nextInt(width)], v);
+                for (int e = random.nextInt(4); e > 0; e--) {
+                    g.addEdge(ids[random.nextInt(level * width)], v);
+                }
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelTopologicalSort.WavefrontResult result =
+                    new ParallelTopologicalSort(g, new BasicMetrics(), pool).sortLevels();
+            assertTrue(result.isValid);
+
+            int[] inDegree = g.getDegreeIndex().copyInDegrees();
+            int[] expected = new int[n];
+            int tail = 0;
+            for (int v = 0; v < n; v++) {
+                if (inDegree[v] == 0) {
+                    expected[tail++] = v;
+                }
+            }
+            int levelStart = 0;
+            int levels = 0;
+            while (levelStart < tail) {
+                int levelEnd = tail;
+                assertArrayEquals(Arrays.copyOfRange(expected, levelStart, levelEnd), result.getLevel(levels++));
+                for (int i = levelStart; i < levelEnd; i++) {
+                    int u = expected[i];
+                    for (int j = 0; j < g.outDegree(u); j++) {
+                        if (--inDegree[g.edgeTarget(u, j)] == 0) {
+                            expected[tail++] = g.edgeTarget(u, j);
+                        }
+                    }
+                }
+                Arrays.sort(expected, levelEnd, tail);
+                levelStart = levelEnd;
+            }
+
+            assertEquals(3, levels);
+            assertEquals(3, result.getLevelCount());
+            assertEquals(width, result.getMaxWidth());
+            assertArrayEquals(expected, result.order);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testDynamicTopologicalOrder() {
+        Graph g = new Graph(5);
+        g.addEdge(0, 1);
+        g.addEdge(1, 2);
+
+        DynamicTopologicalOrder order = new DynamicTopologicalOrder(g, new BasicMetrics());
+        order.addEdge(3, 0);
+        order.addEdge(2, 4);
+        order.addEdge(1, 4);
+
+        assertTrue(order.precedes(3, 0));
+        assertTrue(order.precedes(0, 1));
+        assertTrue(order.precedes(1, 2));
+        assertTrue(order.precedes(2, 4));
+
+        CycleException cycle = null;
+        try {
+            order.addEdge(4, 0);
+        } catch (CycleException e) {
+            cycle = e;
+        }
+
+        assertNotNull(cycle);
+        assertArrayEquals(new int[]{4, 0, 1, 4}, cycle.getCycle());
+        assertEquals(5, order.countEdges());
+    }
+
+    @Test
+    public void testPriorityTopologicalSort() {
+        Graph g = new Graph(5);
+        g.addEdge(0, 3);
+        g.addEdge(1, 3);
+        g.addEdge(2, 4);
+
+        double[] keys = {1.0, 5.0, 3.0, 10.0, 3.0};
+        int[] order = new TopologicalSort(g, new BasicMetrics()).sortByPriority(keys);
+
+        assertArrayEquals(new int[]{1, 2, 4, 0, 3}, order);
+    }
+
+    @Test
+    public void testLazyTopologicalIterator() {
+        Graph g = new Graph(6);
+        g.addEdge(5, 2);
+        g.addEdge(5, 0);
+        g.addEdge(4, 0);
+        g.addEdge(4, 1);
+        g.addEdge(2, 3);
+        g.addEdge(3, 1);
+
+        TopologicalSort topo = new TopologicalSort(g, new BasicMetrics());
+        TopologicalIterator iterator = topo.iterator();
+
+        assertTrue(iterator.hasNext());
+        assertEquals(4, iterator.nextInt());
+        assertEquals(1, iterator.getEmittedCount());
+
+        assertArrayEquals(topo.sortToArray(), topo.stream().toArray());
+
+        while (iterator.hasNext()) {
+            iterator.nextInt();
+        }
+        assertFalse(iterator.hasCycle());
+
+        g.addEdge(1, 2);
+        TopologicalIterator cyclic = new TopologicalSort(g, new BasicMetrics()).iterator();
+        while (cyclic.hasNext()) {
+            cyclic.nextInt();
+        }
+        assertTrue(cyclic.hasCycle());
+        assertEquals(3, cyclic.getEmittedCount());
+
+        IllegalStateException failure = null;
+        try {
+            new TopologicalSort(g, new BasicMetrics()).stream().count();
+        } catch (IllegalStateException e) {
+            failure = e;
+        }
+        assertNotNull(failure);
+    }
+
+    @Test
+    public void testPreparedPathQueryReusesOrder() {
+        Graph g = new Graph(4);
+        g.addEdge(0, 1, 2.0);
+        g.addEdge(1, 2, 3.0);
+        g.addEdge(0, 2, 10.0);
+
+        BasicMetrics metrics = new BasicMetrics();
+        DAGPathQuery query = new DAGPathQuery(g, metrics);
+        long version = query.getVersion();
+        int[] order = query.getTopologicalOrder();
+        Arrays.fill(order, 3);
+
+        assertEquals(5.0, query.shortestPaths(0).dist[2], 0.001);
+        assertEquals(10.0, query.longestPaths(0).dist[2], 0.001);
+        assertEquals(3.0, query.shortestPaths(1).dist[2], 0.001);
+        assertEquals(version, query.getVersion());
+        assertEquals(0L, metrics.getCounter("order_builds"));
+
+        g.addEdge(2, 3, 1.0);
+        assertTrue(version != query.getVersion());
+        assertEquals(6.0, query.shortestPaths(0).dist[3], 0.001);
+
+        g.addEdge(3, 0, 1.0);
+        assertFalse(query.isAcyclic());
+        assertFalse(query.shortestPaths(0).isValid);
+    }
+
+    @Test
+    public void testMultiSourceSweepAcceptsMoreSourcesThanABatch() {
+        int n = 50_000;
+        Graph g = new Graph(n);
+        for (int v = 0; v + 1 < n; v++) {
+            g.addEdge(v, v + 1, 1.0);
+        }
+        int[] sources = new int[n];
+        for (int v = 0; v < n; v++) {
+            sources[v] = v;
+        }
+
+        DAGPathQuery query = new DAGPathQuery(g, new BasicMetrics());
+        DAGShortestPath.PathResult result = query.longestPaths(sources);
+        assertTrue(result.isValid);
+        assertEquals(n - 1.0, result.dist[n - 1], 0.001);
+
+        IllegalArgumentException failure = null;
+        try {
+            query.longestPathsBatch(sources);
+        } catch (IllegalArgumentException e) {
+            failure = e;
+        }
+        assertNotNull(failure);
+    }
+
+    @Test
+    public void testMultiSourceAndBatchedSweeps() {
+        Graph g = new Graph(5);
+        g.addEdge(0, 2, 4.0);
+        g.addEdge(1, 2, 1.0);
+        g.addEdge(2, 3, 2.0);
+        g.addEdge(0, 4, 7.0);
+
+        DAGPathQuery query = new DAGPathQuery(g, new BasicMetrics());
+        int[] sources = {0, 1};
+
+        DAGShortestPath.PathResult nearest = query.shortestPaths(sources);
+        assertEquals(1.0, nearest.dist[2], 0.001);
+        assertEquals(3.0, nearest.dist[3], 0.001);
+        assertEquals(List.of(1, 2, 3), nearest.getPathTo(3));
+
+        DAGPathQuery.BatchResult batch = query.shortestPathsBatch(sources);
+        assertEquals(2, batch.getSourceCount());
+        assertEquals(6.0, batch.getDistance(0, 3), 0.001);
+        assertEquals(3.0, batch.getDistance(1, 3), 0.001);
+        assertEquals(Double.POSITIVE_INFINITY, batch.getDistance(1, 4), 0.0);
+
+        DAGPathQuery.BatchResult longest = query.longestPathsBatch(sources);
+        assertEquals(7.0, longest.getDistance(0, 4), 0.001);
+        assertEquals(Double.NEGATIVE_INFINITY, longest.getDistance(1, 0), 0.0);
+    }
+
+    @Test
+    public void testAllPairsDAGDistances() throws Exception {
+        Graph g = new Graph(4);
+        g.addEdge(0, 1, 1.0);
+        g.addEdge(1, 3, 2.0);
+        g.addEdge(0, 2, 5.0);
+        g.addEdge(2, 3, 1.0);
+
+        AllPairsDAGDistances.AllPairsResult shortest = new AllPairsDAGDistances(g, new BasicMetrics()).shortestDistances();
+        assertTrue(shortest.isValid);
+        assertEquals(3.0, shortest.getDistance(0, 3), 0.001);
+        assertEquals(0.0, shortest.getDistance(2, 2), 0.001);
+        assertEquals(Double.POSITIVE_INFINITY, shortest.getDistance(3, 0), 0.0);
+
+        File file = File.createTempFile("distances", ".bin");
+        file.deleteOnExit();
+        try (DistanceMatrix matrix = DistanceMatrix.mapped(file.toPath(), 4, DistanceMatrix.Precision.FLOAT)) {
+            AllPairsDAGDistances.AllPairsResult longest = new AllPairsDAGDistances(g, new BasicMetrics()).longestDistances(matrix);
+            assertEquals(6.0, longest.getDistance(0, 3), 0.001);
+            assertEquals(Double.NEGATIVE_INFINITY, longest.getDistance(1, 2), 0.0);
+            assertEquals(16L * 4, matrix.byteSize());
+        }
+
+        g.addEdge(3, 0, 1.0);
+        AllPairsDAGDistances.AllPairsResult cyclic = new AllPairsDAGDistances(g, new BasicMetrics()).shortestDistances();
+        assertFalse(cyclic.isValid);
+        IllegalStateException failure = null;
+        try {
+            cyclic.getDistance(0, 3);
+        } catch (IllegalStateException e) {
+            failure = e;
+        }
+        assertNotNull(failure);
+
+        IllegalArgumentException invalid = null;
+        try (DistanceMatrix matrix = DistanceMatrix.mapped(file.toPath(), 4, DistanceMatrix.Precision.DOUBLE)) {
+            matrix.get(0, 4);
+        } catch (IllegalArgumentException e) {
+            invalid = e;
+        }
+        assertNotNull(invalid);
+    }
+
+    @Test
+    public void testAllPairsDAGDistancesMatchSingleSourceSweeps() throws Exception {
+        int n = 300;
+        Graph g = new Graph(n);
+        Random random = new Random(23);
+        for (int i = 0; i < 1500; i++) {
+            int u = random.nextInt(n - 1);
+            int v = u + 1 + random.nextInt(n - u - 1);
+            g.addEdge(u, v, random.nextInt(21) - 5);
+        }
+
+        AllPairsDAGDistances engine = new AllPairsDAGDistances(g, new BasicMetrics());
+        AllPairsDAGDistances.AllPairsResult shortest = engine.shortestDistances();
+        AllPairsDAGDistances.AllPairsResult longest = engine.longestDistances();
+        DAGShortestPath sweeps = new DAGShortestPath(g, new BasicMetrics());
+        for (int source = 0; source < n; source++) {
+            assertArrayEquals(sweeps.shortestPaths(source).dist, shortest.matrix.getRow(source), 0.0);
+            assertArrayEquals(sweeps.longestPaths(source).dist, longest.matrix.getRow(source), 0.0);
+        }
+
+        File file = File.createTempFile("distances", ".bin");
+        file.deleteOnExit();
+        try (DistanceMatrix matrix = DistanceMatrix.mapped(file.toPath(), n, DistanceMatrix.Precision.DOUBLE, 7)) {
+            engine.shortestDistances(matrix);
+            for (int source = 0; source < n; source++) {
+                assertArrayEquals(sweeps.shortestPaths(source).dist, matrix.getRow(source), 0.0);
+            }
+        }
+        assertEquals((long) n * n * 8, file.length());
+    }
+
+    @Test
+    public void testCriticalPathAnalysis() {
+        Graph g = new Graph(6);
+        g.addEdge(0, 1, 3.0);
+        g.addEdge(0, 2, 2.0);
+        g.addEdge(1, 3, 4.0);
+        g.addEdge(2, 3, 1.0);
+        g.addEdge(3, 4, 2.0);
+        g.addEdge(5, 4, 1.0);
+
+        CriticalPathAnalysis.ScheduleResult result = new CriticalPathAnalysis(g, new BasicMetrics()).analyze();
+
+        assertTrue(result.isValid);
+        assertEquals(9.0, result.projectLength, 0.001);
+        assertEquals(7.0, result.earliestStart[3], 0.001);
+        assertEquals(6.0, result.latestStart[2], 0.001);
+        assertEquals(4.0, result.totalSlack[2], 0.001);
+        assertEquals(4.0, result.freeSlack[2], 0.001);
+        assertEquals(8.0, result.totalSlack[5], 0.001);
+        assertArrayEquals(new int[]{0, 1, 3, 4}, result.criticalTasks);
+        assertTrue(result.isCritical(3));
+        assertFalse(result.isCritical(5));
+    }
+
+    @Test
+    public void testKBestPaths() {
+        Graph g = new Graph(6);
+        g.addEdge(0, 1, 3.0);
+        g.addEdge(0, 2, 2.0);
+        g.addEdge(1, 3, 4.0);
+        g.addEdge(2, 3, 1.0);
+        g.addEdge(3, 4, 2.0);
+        g.addEdge(5, 4, 1.0);
+
+        KBestPaths paths = new KBestPaths(g, new BasicMetrics());
+
+        KBestPaths.KPathsResult longest = paths.longestPaths(5);
+        assertEquals(3, longest.getPathCount());
+        assertEquals(9.0, longest.getLength(0), 0.001);
+        assertArrayEquals(new int[]{0, 1, 3, 4}, longest.getPath(0));
+        assertEquals(5.0, longest.getLength(1), 0.001);
+        assertArrayEquals(new int[]{0, 2, 3, 4}, longest.getPath(1));
+        assertEquals(1.0, longest.getLength(2), 0.001);
+
+        KBestPaths.KPathsResult shortest = paths.shortestPaths(2);
+        assertEquals(2, shortest.getPathCount());
+        assertArrayEquals(new int[]{5, 4}, shortest.getPath(0));
+        assertEquals(5.0, shortest.getLength(1), 0.001);
+    }
+
+    @Test
+    public void testKBestPathsMatchBruteForce() {
+        Random random = new Random(25);
+        for (int trial = 0; trial < 200; trial++) {
+            int n = 2 + random.nextInt(7);
+            Graph g = new Graph(n);
+            for (int i = 0; i < 2 * n; i++) {
+                int u = random.nextInt(n - 1);
+                int v = u + 1 + random.nextInt(n - u - 1);
+                double weight = random.nextInt(4) - 1;
+                g.addEdge(u, v, weight);
+                if (random.nextInt(4) == 0) {
+                    g.addEdge(u, v, random.nextBoolean() ? weight : weight + 1);
+                }
+            }
+
+            List<String> expected = new ArrayList<>();
+            List<Double> lengths = new ArrayList<>();
+            for (int source : g.getDegreeIndex().getSources()) {
+                enumeratePaths(g, new int[n], 0, source, 0, expected, lengths);
+            }
+            lengths.sort(null);
+
+            KBestPaths paths = new KBestPaths(g, new BasicMetrics());
+            KBestPaths.KPathsResult shortest = paths.shortestPaths(lengths.size() + 3);
+            KBestPaths.KPathsResult longest = paths.longestPaths(lengths.size() + 3);
+            assertEquals(lengths.size(), shortest.getPathCount());
+            assertEquals(lengths.size(), longest.getPathCount());
+
+            List<String> unmatchedShortest = new ArrayList<>(expected);
+            List<String> unmatchedLongest = new ArrayList<>(expected);
+            for (int rank = 0; rank < lengths.size(); rank++) {
+                assertEquals(lengths.get(rank), shortest.getLength(rank), 0.0);
+                assertEquals(lengths.get(lengths.size() - 1 - rank), longest.getLength(rank), 0.0);
+                assertTrue(unmatchedShortest.remove(Arrays.toString(shortest.getPath(rank)) + shortest.getLength(rank)));
+                assertTrue(unmatchedLongest.remove(Arrays.toString(longest.getPath(rank)) + longest.getLength(rank)));
+            }
+
+            int k = 1 + random.nextInt(lengths.size());
+            assertEquals(k, paths.shortestPaths(k).getPathCount());
+            assertEquals(lengths.get(k - 1), paths.shortestPaths(k).getLength(k - 1), 0.0);
+        }
+    }
+
+    private static void enumeratePaths(Graph g, int[] path, int depth, int u, double length,
+                                       List<String> paths, List<Double> lengths) {
+        path[depth] = u;
+        if (g.outDegree(u) == 0) {
+            paths.add(Arrays.toString(Arrays.copyOf(path, depth + 1)) + length);
+            lengths.add(length);
+            return;
+        }
+        for (int j = 0; j < g.outDegree(u); j++) {
+            enumeratePaths(g, path, depth + 1, g.edgeTarget(u, j), length + g.edgeWeight(u, j), paths, lengths);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package graph.topo;
+
+public class CycleException extends IllegalArgumentException {
+    private static final long serialVersionUID = 1L;
+
+    private final int[] cycle;
+
+    public CycleException(int[] cycle) {
+        super("Edge " + cycle[0] + " -> " + cycle[1] + " would create a cycle: " + describe(cycle));
+        this.cycle = cycle;
+    }
+
+    public int[] getCycle() {
+        return cycle.clone();
+    }
+
+    private static String describe(int[] cycle) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < cycle.length; i++) {
+            if (i > 0) {
+                sb.append(" -> ");
+            }
+            sb.append(cycle[i]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,240 @@
+package graph.topo;
+
+import graph.common.BasicMetrics;
+import graph.common.GraphView;
+import graph.common.Metrics;
+
+import java.util.Arrays;
+
+public class DynamicTopologicalOrder {
+    private final Metrics metrics;
+    private final int n;
+
+    private final int[] ord;
+    private final int[] vertexAt;
+
+    private final int[][] out;
+    private final int[] outSize;
+    private final int[][] in;
+    private final int[] inSize;
+    private int edgeCount;
+
+    private final int[] forwardMark;
+    private final int[] backwardMark;
+    private final int[] parent;
+    private final int[] stack;
+    private final int[] forward;
+    private final int[] backward;
+    private int epoch;
+
+    public DynamicTopologicalOrder(int vertices, Metrics metrics) {
+        this.metrics = metrics;
+        this.n = vertices;
+
+        ord = new int[n];
+        vertexAt = new int[n];
+        out = new int[n][];
+        outSize = new int[n];
+        in = new int[n][];
+        inSize = new int[n];
+        forwardMark = new int[n];
+        backwardMark = new int[n];
+        parent = new int[n];
+        stack = new int[n];
+        forward = new int[n];
+        backward = new int[n];
+
+        for (int v = 0; v < n; v++) {
+            ord[v] = v;
+            vertexAt[v] = v;
+            out[v] = new int[2];
+            in[v] = new int[2];
+        }
+    }
+
+    public DynamicTopologicalOrder(GraphView graph, Metrics metrics) {
+        this(graph.getVertices(), metrics);
+
+        int[] order = new TopologicalSort(graph, new BasicMetrics()).sortToArray();
+        if (order.length != n) {
+            throw new IllegalArgumentException("Graph contains a cycle");
+        }
+        for (int position = 0; position < n; position++) {
+            ord[order[position]] = position;
+            vertexAt[position] = order[position];
+        }
+
+        for (int u = 0; u < n; u++) {
+            int degree = graph.outDegree(u);
+            for (int i = 0; i < degree; i++) {
+                link(u, graph.edgeTarget(u, i));
+            }
+        }
+    }
+
+    public void addEdge(int u, int v) {
+        if (u < 0 || u >= n || v < 0 || v >= n) {
+            throw new IllegalArgumentException("Invalid vertex index");
+        }
+        if (u == v) {
+            throw new CycleException(new int[]{u, v});
+        }
+        if (ord[u] < ord[v]) {
+            link(u, v);
+            return;
+        }
+
+        nextEpoch();
+        int forwardCount = searchForward(v, u);
+        if (forwardMark[u] == epoch) {
+            throw new CycleException(witness(u, v));
+        }
+        int backwardCount = searchBackward(u, ord[v]);
+        metrics.addCounter("affected_vertices", forwardCount + backwardCount);
+
+        reorder(forwardCount, backwardCount);
+        link(u, v);
+    }
+
+    public int getVertices() {
+        return n;
+    }
+
+    public int countEdges() {
+        return edgeCount;
+    }
+
+    public int getPosition(int v) {
+        return ord[v];
+    }
+
+    public boolean precedes(int u, int v) {
+        return ord[u] < ord[v];
+    }
+
+    public int[] getOrder() {
+        return vertexAt.clone();
+    }
+
+    private void nextEpoch() {
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(forwardMark, 0);
+            Arrays.fill(backwardMark, 0);
+            epoch = 1;
+        }
+    }
+
+    private int searchForward(int start, int target) {
+        int upper = ord[target];
+        int count = 0;
+        int top = 0;
+        forwardMark[start] = epoch;
+        forward[count++] = start;
+        stack[top++] = start;
+
+        while (top > 0) {
+            int x = stack[--top];
+            for (int i = 0; i < outSize[x]; i++) {
+                int w = out[x][i];
+                if (forwardMark[w] == epoch || ord[w] > upper) {
+                    continue;
+                }
+                forwardMark[w] = epoch;
+                parent[w] = x;
+                if (w == target) {
+                    return count;
+                }
+                forward[count++] = w;
+                stack[top++] = w;
+            }
+        }
+        return count;
+    }
+
+    private int searchBackward(int start, int lower) {
+        int count = 0;
+        int top = 0;
+        backwardMark[start] = epoch;
+        backward[count++] = start;
+        stack[top++] = start;
+
+        while (top > 0) {
+            int x = stack[--top];
+            for (int i = 0; i < inSize[x]; i++) {
+                int w = in[x][i];
+                if (backwardMark[w] != epoch && ord[w] > lower) {
+                    backwardMark[w] = epoch;
+                    backward[count++] = w;
+                    stack[top++] = w;
+                }
+            }
+        }
+        return count;
+    }
+
+    private int[] witness(int u, int v) {
+        int length = 2;
+        for (int x = u; x != v; x = parent[x]) {
+            length++;
+        }
+
+        int[] cycle = new int[length];
+        cycle[0] = u;
+        int i = length - 1;
+        for (int x = u; x != v; x = parent[x]) {
+            cycle[i--] = x;
+        }
+        cycle[i] = v;
+        return cycle;
+    }
+
+    private void reorder(int forwardCount, int backwardCount) {
+        long[] before = new long[backwardCount];
+        long[] after = new long[forwardCount];
+        int[] positions = new int[forwardCount + backwardCount];
+
+        for (int i = 0; i < backwardCount; i++) {
+            before[i] = packOrder(backward[i]);
+            positions[i] = ord[backward[i]];
+        }
+        for (int i = 0; i < forwardCount; i++) {
+            after[i] = packOrder(forward[i]);
+            positions[backwardCount + i] = ord[forward[i]];
+        }
+
+        Arrays.sort(before);
+        Arrays.sort(after);
+        Arrays.sort(positions);
+
+        int p = 0;
+        for (long entry : before) {
+            place((int) entry, positions[p++]);
+        }
+        for (long entry : after) {
+            place((int) entry, positions[p++]);
+        }
+        metrics.addCounter("reordered_vertices", positions.length);
+    }
+
+    private void place(int v, int position) {
+        ord[v] = position;
+        vertexAt[position] = v;
+    }
+
+    private long packOrder(int v) {
+        return ((long) ord[v] << 32) | v;
+    }
+
+    private void link(int u, int v) {
+        if (outSize[u] == out[u].length) {
+            out[u] = Arrays.copyOf(out[u], outSize[u] * 2);
+        }
+        out[u][outSize[u]++] = v;
+
+        if (inSize[v] == in[v].length) {
+            in[v] = Arrays.copyOf(in[v], inSize[v] * 2);
+        }
+        in[v][inSize[v]++] = u;
+        edgeCount++;
+    }
+}
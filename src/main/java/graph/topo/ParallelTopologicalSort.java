@@ -0,0 +1,176 @@
+package graph.topo;
+
+import graph.common.GraphView;
+import graph.common.Metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class ParallelTopologicalSort {
+    private static final int SEQUENTIAL_THRESHOLD = 2048;
+
+    private final GraphView graph;
+    private final Metrics metrics;
+    private final ForkJoinPool pool;
+
+    public ParallelTopologicalSort(GraphView graph, Metrics metrics) {
+        this(graph, metrics, ForkJoinPool.commonPool());
+    }
+
+    public ParallelTopologicalSort(GraphView graph, Metrics metrics, ForkJoinPool pool) {
+        this.graph = graph;
+        this.metrics = metrics;
+        this.pool = pool;
+    }
+
+    public WavefrontResult sortLevels() {
+        int n = graph.getVertices();
+
+        metrics.startTiming();
+
+        AtomicIntegerArray inDegree = new AtomicIntegerArray(graph.getDegreeIndex().copyInDegrees());
+        int[] order = new int[n];
+        int[] levelOffsets = new int[n + 1];
+        AtomicInteger tail = new AtomicInteger();
+        int levels = 0;
+
+        int sources = 0;
+        for (int v = 0; v < n; v++) {
+            if (inDegree.get(v) == 0) {
+                order[sources++] = v;
+            }
+        }
+        tail.set(sources);
+
+        int levelStart = 0;
+        int levelEnd = sources;
+        while (levelStart < levelEnd) {
+            levelOffsets[++levels] = levelEnd;
+
+            if (levelEnd - levelStart <= SEQUENTIAL_THRESHOLD) {
+                new LevelTask(inDegree, order, tail, levelStart, levelEnd).compute();
+            } else {
+                pool.invoke(new LevelTask(inDegree, order, tail, levelStart, levelEnd));
+            }
+
+            levelStart = levelEnd;
+            levelEnd = tail.get();
+            Arrays.sort(order, levelStart, levelEnd);
+        }
+
+        metrics.stopTiming();
+        metrics.addCounter("levels", levels);
+        metrics.addCounter("queue_pushes", levelEnd);
+
+        if (levelEnd != n) {
+            return new WavefrontResult(new int[0], new int[1], metrics, false);
+        }
+        return new WavefrontResult(order, Arrays.copyOf(levelOffsets, levels + 1), metrics, true);
+    }
+
+    private final class LevelTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final AtomicIntegerArray inDegree;
+        private final int[] order;
+        private final AtomicInteger tail;
+        private final int from;
+        private final int to;
+
+        LevelTask(AtomicIntegerArray inDegree, int[] order, AtomicInteger tail, int from, int to) {
+            this.inDegree = inDegree;
+            this.order = order;
+            this.tail = tail;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SEQUENTIAL_THRESHOLD && getPool() != null) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new LevelTask(inDegree, order, tail, from, mid),
+                        new LevelTask(inDegree, order, tail, mid, to));
+                return;
+            }
+
+            int[] ready = new int[16];
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                int u = order[i];
+                int degree = graph.outDegree(u);
+                for (int j = 0; j < degree; j++) {
+                    int v = graph.edgeTarget(u, j);
+                    if (inDegree.decrementAndGet(v) == 0) {
+                        if (count == ready.length) {
+                            ready = Arrays.copyOf(ready, count * 2);
+                        }
+                        ready[count++] = v;
+                    }
+                }
+            }
+
+            if (count > 0) {
+                int start = tail.getAndAdd(count);
+                System.arraycopy(ready, 0, order, start, count);
+            }
+        }
+    }
+
+    public static class WavefrontResult {
+        public final int[] order;
+        public final int[] levelOffsets;
+        public final Metrics metrics;
+        public final boolean isValid;
+
+        public WavefrontResult(int[] order, int[] levelOffsets, Metrics metrics, boolean isValid) {
+            this.order = order;
+            this.levelOffsets = levelOffsets;
+            this.metrics = metrics;
+            this.isValid = isValid;
+        }
+
+        public int getLevelCount() {
+            return levelOffsets.length - 1;
+        }
+
+        public int getLevelSize(int level) {
+            return levelOffsets[level + 1] - levelOffsets[level];
+        }
+
+        public int[] getLevel(int level) {
+            return Arrays.copyOfRange(order, levelOffsets[level], levelOffsets[level + 1]);
+        }
+
+        public int getMaxWidth() {
+            int width = 0;
+            for (int level = 0; level < getLevelCount(); level++) {
+                width = Math.max(width, getLevelSize(level));
+            }
+            return width;
+        }
+
+        public void printResults(GraphView graph) {
+            System.out.println("Execution Wavefronts");
+
+            if (!isValid) {
+                System.out.println("ERROR: Graph contains a cycle!");
+                return;
+            }
+
+            for (int level = 0; level < getLevelCount(); level++) {
+                System.out.print("Wave " + (level + 1) + ":");
+                for (int i = levelOffsets[level]; i < levelOffsets[level + 1]; i++) {
+                    System.out.print("  " + graph.getTaskName(order[i]));
+                }
+                System.out.println();
+            }
+
+            System.out.println("\nMetrics");
+            System.out.println(metrics.getSummary());
+        }
+    }
+}
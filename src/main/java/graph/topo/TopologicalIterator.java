@@ -0,0 +1,96 @@
+package graph.topo;
+
+import graph.common.DegreeIndex;
+import graph.common.GraphView;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+
+public class TopologicalIterator implements PrimitiveIterator.OfInt {
+    private final GraphView graph;
+    private final DegreeIndex degrees;
+    private final int[] inDegree;
+    private final int[] queue;
+    private int head;
+    private int tail;
+    private int scan;
+    private int emitted;
+
+    public TopologicalIterator(GraphView graph) {
+        this.graph = graph;
+        this.degrees = graph.getDegreeIndex();
+        this.inDegree = degrees.copyInDegrees();
+        this.queue = new int[graph.getVertices()];
+    }
+
+    @Override
+    public boolean hasNext() {
+        int n = graph.getVertices();
+        while (scan < n && degrees.getInDegree(scan) != 0) {
+            scan++;
+        }
+        return scan < n || head < tail;
+    }
+
+    @Override
+    public int nextInt() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        int u = scan < graph.getVertices() ? scan++ : queue[head++];
+        int degree = graph.outDegree(u);
+        for (int i = 0; i < degree; i++) {
+            int v = graph.edgeTarget(u, i);
+            if (--inDegree[v] == 0) {
+                queue[tail++] = v;
+            }
+        }
+        emitted++;
+        return u;
+    }
+
+    public int getEmittedCount() {
+        return emitted;
+    }
+
+    public boolean hasCycle() {
+        return !hasNext() && emitted != graph.getVertices();
+    }
+
+    public Spliterator.OfInt spliterator() {
+        return new OrderSpliterator();
+    }
+
+    private final class OrderSpliterator implements Spliterator.OfInt {
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (hasNext()) {
+                action.accept(nextInt());
+                return true;
+            }
+            if (emitted != graph.getVertices()) {
+                throw new IllegalStateException("Graph contains a cycle: "
+                        + (graph.getVertices() - emitted) + " tasks were never ready");
+            }
+            return false;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return graph.getVertices() - emitted;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | NONNULL;
+        }
+    }
+}
@@ -1,101 +1,208 @@
 package graph.topo;
 
-import graph.common.Graph;
+import graph.common.GraphView;
 import graph.common.Metrics;
 import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 public class TopologicalSort {
-    private final Graph graph;
+    private final GraphView graph;
     private final Metrics metrics;
 
-    public TopologicalSort(Graph graph, Metrics metrics) {
+    public TopologicalSort(GraphView graph, Metrics metrics) {
         this.graph = graph;
         this.metrics = metrics;
     }
 
     public List<Integer> sort() {
+        return toList(sortToArray());
+    }
+
+    public int[] sortToArray() {
         int n = graph.getVertices();
-        int[] inDegree = new int[n];
 
         metrics.startTiming();
 
-        for (int u = 0; u < n; u++) {
-            for (Graph.Edge edge : graph.getAdjacent(u)) {
-                inDegree[edge.to]++;
-            }
-        }
+        int[] inDegree = graph.getDegreeIndex().copyInDegrees();
+        int[] order = new int[n];
+        int head = 0;
+        int tail = 0;
 
-        Queue<Integer> queue = new LinkedList<>();
         for (int i = 0; i < n; i++) {
             if (inDegree[i] == 0) {
-                queue.offer(i);
-                metrics.incrementCounter("queue_pushes");
+                order[tail++] = i;
             }
         }
 
-        List<Integer> topoOrder = new ArrayList<>();
+        while (head < tail) {
+            int u = order[head++];
 
-        while (!queue.isEmpty()) {
-            int u = queue.poll();
-            metrics.incrementCounter("queue_pops");
-            topoOrder.add(u);
-
-            for (Graph.Edge edge : graph.getAdjacent(u)) {
-                int v = edge.to;
-                inDegree[v]--;
-
-                if (inDegree[v] == 0) {
-                    queue.offer(v);
-                    metrics.incrementCounter("queue_pushes");
+            int degree = graph.outDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.edgeTarget(u, i);
+                if (--inDegree[v] == 0) {
+                    order[tail++] = v;
                 }
             }
         }
 
         metrics.stopTiming();
+        metrics.addCounter("queue_pushes", tail);
+        metrics.addCounter("queue_pops", head);
 
-        if (topoOrder.size() != n) {
-            return new ArrayList<>();
+        if (tail != n) {
+            return new int[0];
         }
 
-        return topoOrder;
+        return order;
     }
 
-    public List<Integer> sortDFS() {
+    public int[] sortByPriority(double[] keys) {
         int n = graph.getVertices();
-        boolean[] visited = new boolean[n];
-        Stack<Integer> stack = new Stack<>();
+        if (keys.length != n) {
+            throw new IllegalArgumentException("Expected " + n + " priority keys but got " + keys.length);
+        }
 
         metrics.startTiming();
 
+        int[] inDegree = graph.getDegreeIndex().copyInDegrees();
+        int[] heap = new int[n];
+        int[] order = new int[n];
+        int heapSize = 0;
+        int emitted = 0;
+
         for (int i = 0; i < n; i++) {
-            if (!visited[i]) {
-                dfsTopo(i, visited, stack);
+            if (inDegree[i] == 0) {
+                siftUp(heap, heapSize++, i, keys);
+            }
+        }
+
+        while (heapSize > 0) {
+            int u = heap[0];
+            int last = heap[--heapSize];
+            if (heapSize > 0) {
+                siftDown(heap, heapSize, last, keys);
+            }
+            order[emitted++] = u;
+
+            int degree = graph.outDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.edgeTarget(u, i);
+                if (--inDegree[v] == 0) {
+                    siftUp(heap, heapSize++, v, keys);
+                }
             }
         }
 
         metrics.stopTiming();
+        metrics.addCounter("heap_pushes", emitted);
+        metrics.addCounter("heap_pops", emitted);
+
+        if (emitted != n) {
+            return new int[0];
+        }
+
+        return order;
+    }
+
+    private static void siftUp(int[] heap, int position, int v, double[] keys) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!higherPriority(v, heap[parent], keys)) {
+                break;
+            }
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = v;
+    }
 
-        List<Integer> topoOrder = new ArrayList<>();
-        while (!stack.isEmpty()) {
-            topoOrder.add(stack.pop());
-            metrics.incrementCounter("stack_pops");
+    private static void siftDown(int[] heap, int size, int v, double[] keys) {
+        int position = 0;
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && higherPriority(heap[right], heap[child], keys)) {
+                child = right;
+            }
+            if (!higherPriority(heap[child], v, keys)) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
         }
+        heap[position] = v;
+    }
 
-        return topoOrder;
+    private static boolean higherPriority(int a, int b, double[] keys) {
+        int cmp = Double.compare(keys[a], keys[b]);
+        return cmp > 0 || (cmp == 0 && a < b);
     }
 
-    private void dfsTopo(int u, boolean[] visited, Stack<Integer> stack) {
-        visited[u] = true;
-        metrics.incrementCounter("dfs_visits");
+    public TopologicalIterator iterator() {
+        return new TopologicalIterator(graph);
+    }
 
-        for (Graph.Edge edge : graph.getAdjacent(u)) {
-            if (!visited[edge.to]) {
-                dfsTopo(edge.to, visited, stack);
+    public IntStream stream() {
+        return StreamSupport.intStream(iterator().spliterator(), false);
+    }
+
+    public List<Integer> sortDFS() {
+        return toList(sortDFSToArray());
+    }
+
+    public int[] sortDFSToArray() {
+        int n = graph.getVertices();
+        boolean[] visited = new boolean[n];
+        int[] cursor = new int[n];
+        int[] callStack = new int[n];
+        int[] order = new int[n];
+        int finished = 0;
+
+        metrics.startTiming();
+
+        for (int root = 0; root < n; root++) {
+            if (visited[root]) {
+                continue;
+            }
+
+            int top = 0;
+            visited[root] = true;
+            callStack[top++] = root;
+
+            while (top > 0) {
+                int u = callStack[top - 1];
+
+                if (cursor[u] < graph.outDegree(u)) {
+                    int v = graph.edgeTarget(u, cursor[u]++);
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        callStack[top++] = v;
+                    }
+                    continue;
+                }
+
+                top--;
+                order[n - 1 - finished++] = u;
             }
         }
 
-        stack.push(u);
-        metrics.incrementCounter("stack_pushes");
+        metrics.stopTiming();
+        metrics.addCounter("dfs_visits", n);
+        metrics.addCounter("stack_pushes", n);
+        metrics.addCounter("stack_pops", n);
+
+        return order;
+    }
+
+    private static List<Integer> toList(int[] order) {
+        List<Integer> list = new ArrayList<>(order.length);
+        for (int v : order) {
+            list.add(v);
+        }
+        return list;
     }
 
     public TopoResult getResults() {
@@ -114,7 +221,7 @@ public class TopologicalSort {
             this.isValid = isValid;
         }
 
-        public void printResults(Graph graph) {
+        public void printResults(GraphView graph) {
             System.out.println("Topological Sort");
 
             if (!isValid) {
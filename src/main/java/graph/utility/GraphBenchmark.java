@@ -0,0 +1,169 @@
+package graph.utility;
+
+import graph.common.BasicMetrics;
+import graph.common.CSRGraph;
+import graph.common.Graph;
+import graph.common.GraphView;
+import graph.dagsp.DAGShortestPath;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.KosarajuSCC;
+import graph.scc.ParallelSCC;
+import graph.scc.PathBasedSCC;
+import graph.scc.SCCEngineSelector;
+import graph.scc.TarjanSCC;
+import graph.topo.TopologicalSort;
+
+import java.util.Random;
+
+public class GraphBenchmark {
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int vertices = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int edges = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        System.out.println("GRAPH BENCHMARK");
+        System.out.println("Vertices: " + vertices + ", Edges: " + edges + "\n");
+
+        Thread worker = new Thread(null, () -> {
+            try {
+                compareRepresentations(vertices, edges);
+                compareSCCEngines(vertices, edges);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }, "graph-benchmark", 1L << 30);
+        worker.start();
+        worker.join();
+    }
+
+    private static void compareRepresentations(int vertices, int edges) {
+        System.out.println("Adjacency List vs CSR");
+
+        long before = usedMemory();
+        Graph dag = generateGraph(vertices, edges, false, 42);
+        long listBytes = usedMemory() - before;
+
+        before = usedMemory();
+        CSRGraph dagCsr = new CSRGraph(dag);
+        long csrBytes = usedMemory() - before;
+
+        System.out.println("  Heap (adjacency list): " + (listBytes >> 20) + " MB");
+        System.out.println("  Heap (CSR):            " + (csrBytes >> 20) + " MB");
+
+        Graph cyclic = generateGraph(vertices, edges, true, 7);
+        CSRGraph cyclicCsr = new CSRGraph(cyclic);
+
+        report("Tarjan SCC", measure(() -> new TarjanSCC(cyclic, new TimingMetrics()).findSCCs()),
+                measure(() -> new TarjanSCC(cyclicCsr, new TimingMetrics()).findSCCs()));
+        report("Topological Sort", measure(() -> new TopologicalSort(dag, new TimingMetrics()).sort()),
+                measure(() -> new TopologicalSort(dagCsr, new TimingMetrics()).sort()));
+        report("DAG Shortest Path", measure(() -> new DAGShortestPath(dag, new TimingMetrics()).shortestPaths(0)),
+                measure(() -> new DAGShortestPath(dagCsr, new TimingMetrics()).shortestPaths(0)));
+        System.out.println();
+    }
+
+    private static void compareSCCEngines(int vertices, int edges) {
+        System.out.println("SCC Engines (CSR, " + Runtime.getRuntime().availableProcessors() + " cores)");
+
+        reportEngines("Sparse DAG", new CSRGraph(generateGraph(vertices, edges, false, 42)));
+        reportEngines("Sparse cyclic", new CSRGraph(generateGraph(vertices, edges, true, 7)));
+        reportEngines("Dense cyclic", new CSRGraph(generateGraph(Math.max(vertices / 20, 2), edges, true, 11)));
+        reportEngines("Chain of cycles", new CSRGraph(generateCycleChain(vertices, 8)));
+        System.out.println();
+    }
+
+    private static void reportEngines(String name, GraphView graph) {
+        double tarjan = measure(() -> new IterativeTarjanSCC(graph, new TimingMetrics()).findComponents());
+        double kosaraju = measure(() -> new KosarajuSCC(graph, new TimingMetrics()).findComponents());
+        double pathBased = measure(() -> new PathBasedSCC(graph, new TimingMetrics()).findComponents());
+        double parallel = measure(() -> new ParallelSCC(graph, new TimingMetrics()).findComponents());
+        double ordered = measure(() -> new ParallelSCC(graph, new TimingMetrics()).findComponents().inTarjanOrder(graph));
+
+        System.out.println("  " + name + " (V=" + graph.getVertices() + ", E=" + graph.countEdges() + "): "
+                + "tarjan " + String.format("%.2f ms", tarjan)
+                + ", kosaraju " + String.format("%.2f ms", kosaraju)
+                + ", path-based " + String.format("%.2f ms", pathBased)
+                + ", parallel " + String.format("%.2f ms", parallel)
+                + " -> " + SCCEngineSelector.select(graph, new TimingMetrics()).getClass().getSimpleName());
+        System.out.println("    parallel vs tarjan: " + String.format("%.2fx", tarjan / parallel)
+                + ", with Tarjan order " + String.format("%.2f ms", ordered)
+                + " (" + String.format("%.2fx", tarjan / ordered) + ")");
+    }
+
+    static Graph generateCycleChain(int vertices, int cycleLength) {
+        Graph graph = new Graph(vertices);
+        for (int start = 0; start < vertices; start += cycleLength) {
+            int end = Math.min(start + cycleLength, vertices);
+            for (int v = start; v + 1 < end; v++) {
+                graph.addEdge(v, v + 1, 1.0);
+            }
+            graph.addEdge(end - 1, start, 1.0);
+            if (end < vertices) {
+                graph.addEdge(end - 1, end, 1.0);
+            }
+        }
+        return graph;
+    }
+
+    static Graph generateGraph(int vertices, int edges, boolean hasCycles, long seed) {
+        Random random = new Random(seed);
+        Graph graph = new Graph(vertices);
+
+        for (int i = 1; i < vertices && i <= edges; i++) {
+            graph.addEdge(random.nextInt(i), i, 1.0 + random.nextDouble() * 9.0);
+        }
+
+        for (int added = Math.min(vertices - 1, edges); added < edges; added++) {
+            int u = random.nextInt(vertices);
+            int v = random.nextInt(vertices);
+            if (!hasCycles && u > v) {
+                int tmp = u;
+                u = v;
+                v = tmp;
+            }
+            if (u == v && !hasCycles) {
+                added--;
+                continue;
+            }
+            graph.addEdge(u, v, 1.0 + random.nextDouble() * 9.0);
+        }
+
+        return graph;
+    }
+
+    static double measure(Runnable task) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            task.run();
+        }
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1_000_000.0;
+    }
+
+    static void report(String name, double listMillis, double csrMillis) {
+        System.out.println("  " + name + ": list " + String.format("%.2f ms", listMillis)
+                + ", CSR " + String.format("%.2f ms", csrMillis)
+                + " (" + String.format("%.2fx", listMillis / csrMillis) + ")");
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    static class TimingMetrics extends BasicMetrics {
+        @Override
+        public void incrementCounter(String operation) {
+        }
+    }
+}
@@ -3,9 +3,14 @@ package graph.utility;
 import graph.common.BasicMetrics;
 import graph.common.Graph;
 import graph.common.GraphLoader;
+import graph.common.GraphSnapshotCache;
+import graph.common.GraphView;
 import graph.common.Metrics;
+import graph.dagsp.CriticalPathAnalysis;
 import graph.dagsp.DAGShortestPath;
+import graph.scc.SCCEngineSelector;
 import graph.scc.TarjanSCC;
+import graph.topo.ParallelTopologicalSort;
 import graph.topo.TopologicalSort;
 
 import java.io.File;
@@ -288,7 +293,7 @@ public class SmartCityScheduler {
             return;
         }
 
-        File[] files = dataDir.listFiles((d, name) -> name.endsWith(".json"));
+        File[] files = dataDir.listFiles((d, name) -> name.endsWith(".json") || name.endsWith(".json.gz"));
         if (files == null || files.length == 0) {
             System.out.println("No datasets found. Skipping.\n");
             return;
@@ -311,17 +316,18 @@ public class SmartCityScheduler {
     }
 
     private static void processGraph(String filename) throws Exception {
-        Graph graph = GraphLoader.loadFromJSON(filename);
+        GraphView graph = GraphSnapshotCache.load(filename);
         processGraphSilent(graph, filename);
     }
 
-    private static void processGraphSilent(Graph graph, String name) {
+    private static void processGraphSilent(GraphView graph, String name) {
         System.out.println("\nGraph: " + name);
         System.out.println("   Vertices: " + graph.getVertices() + ", Edges: " + graph.countEdges());
 
         Metrics sccMetrics = new BasicMetrics();
         TarjanSCC tarjan = new TarjanSCC(graph, sccMetrics);
-        TarjanSCC.SCCResult sccResult = tarjan.getResults();
+        List<List<Integer>> sccs = SCCEngineSelector.select(graph, sccMetrics).findComponents().toLists();
+        TarjanSCC.SCCResult sccResult = new TarjanSCC.SCCResult(sccs, tarjan.buildCondensationGraph(sccs), sccMetrics);
 
         System.out.println("   Found " + sccResult.sccs.size() + " SCCs");
         int cycleCount = 0;
@@ -344,6 +350,10 @@ public class SmartCityScheduler {
         if (topoResult.isValid) {
             System.out.println("   Valid topological order found");
             System.out.println("   Order size: " + topoResult.order.size());
+
+            ParallelTopologicalSort.WavefrontResult waves =
+                    new ParallelTopologicalSort(sccResult.condensation, new BasicMetrics()).sortLevels();
+            System.out.println("   Execution waves: " + waves.getLevelCount() + " (widest " + waves.getMaxWidth() + ")");
         } else {
             System.out.println("   Cannot compute topological sort (cycle in condensation)");
         }
@@ -365,6 +375,11 @@ public class SmartCityScheduler {
             DAGShortestPath.CriticalPathResult cpResult = dagCP.findCriticalPath();
 
             System.out.println("   Critical Path Length: " + String.format("%.1f", cpResult.length));
+
+            CriticalPathAnalysis.ScheduleResult schedule =
+                    new CriticalPathAnalysis(sccResult.condensation, new BasicMetrics(), dagCP.getQuery()).analyze();
+            System.out.println("   Project Length: " + String.format("%.1f", schedule.projectLength)
+                    + " (" + schedule.criticalTasks.length + " critical tasks)");
         }
     }
 
@@ -399,22 +414,9 @@ public class SmartCityScheduler {
         return graph;
     }
 
-    private static int findSource(Graph graph) {
-        int n = graph.getVertices();
-        int[] inDegree = new int[n];
-
-        for (int u = 0; u < n; u++) {
-            for (Graph.Edge edge : graph.getAdjacent(u)) {
-                inDegree[edge.to]++;
-            }
-        }
-
-        for (int i = 0; i < n; i++) {
-            if (inDegree[i] == 0) {
-                return i;
-            }
-        }
-        return 0;
+    private static int findSource(GraphView graph) {
+        int source = graph.getDegreeIndex().firstSource();
+        return source >= 0 ? source : 0;
     }
 
     private static void printWelcome() {